@@ -0,0 +1,85 @@
+/**
+ * AvailableMovesBenchmark.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.benchmark;
+
+import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import krconverse.Baroness;
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
+import ks.common.model.Move;
+
+/**
+ * Benchmarks finding the available moves in a mid-game position.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AvailableMovesBenchmark {
+	Baroness game;
+	BaronessState state;
+	int[] buffer = new int[EncodedMove.MAX_MOVES];
+
+	/**
+	 * Plays the benchmark game to its middle.
+	 */
+	@Setup
+	public void setUp() {
+		game = Positions.midGame();
+		state = BaronessState.fromGame(game);
+	}
+
+	/**
+	 * The moves as the generic solver sees them.
+	 */
+	@Benchmark
+	public void availableMoves(Blackhole blackhole) {
+		Enumeration<Move> moves = game.availableMoves();
+		while (moves.hasMoreElements()) {
+			blackhole.consume(moves.nextElement());
+		}
+	}
+
+	/**
+	 * The encoded moves of the live model.
+	 */
+	@Benchmark
+	public int availableMovesEncoded() {
+		return game.availableMoves(buffer);
+	}
+
+	/**
+	 * The encoded moves of a state.
+	 */
+	@Benchmark
+	public int generateMoves() {
+		return state.generateMoves(buffer);
+	}
+
+	/**
+	 * Taking a snapshot of the live model.
+	 */
+	@Benchmark
+	public BaronessState fromGame() {
+		return BaronessState.fromGame(game);
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ * MoveBenchmark.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import krconverse.Baroness;
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
+import ks.common.model.Move;
+
+/**
+ * Benchmarks creating, validating, making and undoing each kind of move from
+ * a position in the middle of a game where the move is part of the winning
+ * line.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveBenchmark {
+	/** The kind of move, named after its {@link EncodedMove} type. */
+	@Param({ "KING", "PAIR", "EMPTY_COLUMN", "DEAL" })
+	String type;
+
+	Baroness game;
+	BaronessState state;
+	int encoded;
+	Move move;
+
+	/**
+	 * Plays the benchmark game until the next move is of the right type.
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		int code = EncodedMove.class.getField(type).getInt(null);
+		game = Positions.upTo(code);
+		state = BaronessState.fromGame(game);
+		encoded = Positions.nextMove(code);
+		move = game.createMove(encoded);
+		if (!move.valid(game)) {
+			throw new IllegalStateException(EncodedMove.toString(encoded) + " is not valid");
+		}
+	}
+
+	/**
+	 * Creating the move, which works out whether it is valid.
+	 */
+	@Benchmark
+	public Move construct() {
+		return game.createMove(encoded);
+	}
+
+	/**
+	 * Asking the move whether it is valid.
+	 */
+	@Benchmark
+	public boolean valid() {
+		return move.valid(game);
+	}
+
+	/**
+	 * Making the move on the live model and undoing it again.
+	 */
+	@Benchmark
+	public boolean doMoveUndo() {
+		return move.doMove(game) & move.undo(game);
+	}
+
+	/**
+	 * Making the encoded move on a state.
+	 */
+	@Benchmark
+	public BaronessState apply() {
+		return state.apply(encoded);
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * Positions.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.benchmark;
+
+import krconverse.Baroness;
+import krconverse.baroness.solver.BaronessSolver;
+import krconverse.baroness.solver.SolverResult;
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * Sets up representative mid-game positions for the benchmarks by playing
+ * part of the way through a winning line.
+ */
+final class Positions {
+	/** A deal which can be won, so that every kind of move comes up. */
+	static final int SEED = 2115290114;
+
+	/**
+	 * Positions are only made through the static methods.
+	 */
+	private Positions() {
+	}
+
+	/**
+	 * Plays a headless game up to the middle of its winning line.
+	 * @return The game in the middle of play.
+	 */
+	static Baroness midGame() {
+		return upTo(-1);
+	}
+
+	/**
+	 * Plays a headless game along its winning line until the next move is of
+	 * the given type, preferring positions after the middle of the game.
+	 * @param type The type of the next move, or -1 to stop at the middle.
+	 * @return The game, with the encoded next move available from
+	 *         {@link #nextMove(int)}.
+	 */
+	static Baroness upTo(int type) {
+		Baroness game = Baroness.createHeadless(SEED);
+		int[] moves = solve(game);
+		int stop = index(moves, type);
+		for (int i = 0; i < stop; i++) {
+			game.createMove(moves[i]).doMove(game);
+		}
+		return game;
+	}
+
+	/**
+	 * Finds the encoded move of a given type which {@link #upTo(int)} stopped
+	 * before.
+	 * @param type The type of move that was asked for.
+	 * @return The encoded move.
+	 */
+	static int nextMove(int type) {
+		int[] moves = solve(Baroness.createHeadless(SEED));
+		return moves[index(moves, type)];
+	}
+
+	/**
+	 * @param moves The winning line.
+	 * @param type The type of move to stop before, or -1 for the middle.
+	 * @return The index of the move to stop before.
+	 */
+	static int index(int[] moves, int type) {
+		int middle = moves.length / 2;
+		if (type < 0) {
+			return middle;
+		}
+		for (int i = middle; i < moves.length; i++) {
+			if (EncodedMove.type(moves[i]) == type) {
+				return i;
+			}
+		}
+		for (int i = 0; i < middle; i++) {
+			if (EncodedMove.type(moves[i]) == type) {
+				return i;
+			}
+		}
+		throw new IllegalStateException("No " + type + " move in the winning line");
+	}
+
+	/**
+	 * @param game The game to solve.
+	 * @return The encoded winning line.
+	 */
+	static int[] solve(Baroness game) {
+		SolverResult result = new BaronessSolver().solve(game);
+		if (!result.isWon()) {
+			throw new IllegalStateException("Benchmark deal " + SEED + " should be winnable");
+		}
+		return result.getMoves();
+	}
+}
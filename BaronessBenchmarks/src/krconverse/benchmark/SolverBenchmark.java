@@ -0,0 +1,62 @@
+/**
+ * SolverBenchmark.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import krconverse.baroness.solver.BaronessSolver;
+import krconverse.baroness.solver.SearchStrategy;
+import krconverse.baroness.solver.SolverResult;
+import krconverse.baroness.state.BaronessState;
+
+/**
+ * Benchmarks solving the benchmark deal from the start with each
+ * {@link SearchStrategy}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+	/** The strategy to solve with. */
+	@Param({ "DEPTH_FIRST", "ITERATIVE_DEEPENING", "BEST_FIRST", "WEIGHTED_BEST_FIRST" })
+	SearchStrategy strategy;
+
+	BaronessState start;
+	BaronessSolver solver;
+
+	/**
+	 * Deals the benchmark game and sets up a solver with the strategy.
+	 */
+	@Setup
+	public void setUp() {
+		start = BaronessState.fromSeed(Positions.SEED);
+		solver = new BaronessSolver();
+		solver.setStrategy(strategy);
+	}
+
+	/**
+	 * Solving the deal.
+	 */
+	@Benchmark
+	public SolverResult solve() {
+		return solver.solve(start);
+	}
+}
@@ -7,11 +7,23 @@ package krconverse;
 
 import krconverse.baroness.controller.DeckController;
 import krconverse.baroness.controller.FoundationController;
+import krconverse.baroness.event.GameEvent;
+import krconverse.baroness.event.GameEventBus;
+import krconverse.baroness.log.MoveLogWriter;
+import krconverse.baroness.move.EncodableMove;
 import krconverse.baroness.move.DealCardsMove;
 import krconverse.baroness.move.MoveCardToEmptyColumnMove;
 import krconverse.baroness.move.PlayKingMove;
 import krconverse.baroness.move.PlayPairMove;
+import krconverse.baroness.solver.WinnableSeedQueue;
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
+import krconverse.baroness.state.GameHistory;
+import krconverse.baroness.state.TopCardIndex;
+import krconverse.baroness.view.BoardRepainter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
@@ -58,6 +70,13 @@ public class Baroness extends Solitaire implements SolvableSolitaire {
 	Deck deck; // deck which cards are dealt from
 	Column[] columns = new Column[5]; // columns which cards are dealt to and played from
 	Pile foundation; // pile which pairs are moved to after being played
+	TopCardIndex topCardIndex; // ranks showing on top of the columns
+	int dealtSeed; // seed the deck was dealt with
+	WinnableSeedQueue winnableSeeds; // supply of winnable deals, or null to use any deal
+	MoveLogWriter moveLog; // log which moves are recorded to, or null
+	GameHistory history; // moves made, which can be undone, redone or jumped to
+	GameEventBus events; // bus which moves are published to, or null
+	int eventGame; // number of the game in its events
 
 	DeckView deckView; // view for the deck
 	ColumnView[] columnViews = new ColumnView[5]; // views for the columns
@@ -65,6 +84,7 @@ public class Baroness extends Solitaire implements SolvableSolitaire {
 
 	IntegerView scoreView; // view to show the score
 	IntegerView cardsLeftView; // view to show the cards left counter
+	BoardRepainter repainter; // redraws the views changed by moves, or null without views
 
 	/**
 	 * Creates a new Baroness Solitaire game.
@@ -80,12 +100,40 @@ public class Baroness extends Solitaire implements SolvableSolitaire {
 	 */
 	@Override
 	public void initialize() {
-		// TODO Auto-generated method stub
-		initializeModel(getSeed());
+		initializeModel(chooseSeed());
 		initializeView();
 		initializeControllers();
 	}
 
+	/**
+	 * Chooses the seed to deal the next game with. When the game only deals
+	 * winnable games, a solved seed is taken from its supply without waiting,
+	 * and only if none are spare are candidates solved until one is winnable
+	 * (see {@link WinnableSeedQueue#next()}). Otherwise the game's own seed is
+	 * used.
+	 * @return The seed to deal with.
+	 */
+	int chooseSeed() {
+		if (winnableSeeds != null) {
+			return winnableSeeds.next();
+		}
+		return getSeed();
+	}
+
+	/**
+	 * Creates a game which only has a model, without any window, views or
+	 * controllers. The moves in {@link krconverse.baroness.move} can be made
+	 * and undone on the game as usual, which makes it suitable for simulating
+	 * games on machines without a display.
+	 * @param seed The seed to deal the deck with.
+	 * @return The new game.
+	 */
+	public static Baroness createHeadless(int seed) {
+		Baroness game = new Baroness();
+		game.initializeModel(seed);
+		return game;
+	}
+
 	/**
 	 * Initializes the model for the plugin.
 	 * 
@@ -93,6 +141,8 @@ public class Baroness extends Solitaire implements SolvableSolitaire {
 	 *            The seed to start the model with for random generation.
 	 */
 	private void initializeModel(int seed) {
+		dealtSeed = seed;
+
 		// add the deck to the model
 		deck = new Deck("deck");
 		deck.create(seed);
@@ -107,10 +157,16 @@ public class Baroness extends Solitaire implements SolvableSolitaire {
 		// add the foundation to the model
 		foundation = new Pile("foundation");
 		model.addElement(foundation);
+
+		// keep track of the cards on top of the columns
+		topCardIndex = new TopCardIndex(columns);
 		
 		// update the score and cards left
 		this.updateScore(52);
 		this.updateNumberCardsLeft(52);
+
+		// remember the moves from the dealt position on
+		history = new GameHistory(BaronessState.fromGame(this));
 	}
 
 	/**
@@ -160,43 +216,50 @@ public class Baroness extends Solitaire implements SolvableSolitaire {
 		cardsLeftView = new IntegerView(getNumLeft());
 		cardsLeftView.setBounds(cardSpacing, cardSpacing * 2 + ci.getHeight(), ci.getWidth(), 60);
 		addViewWidget(cardsLeftView);
+
+		// only redraw the views which moves change
+		repainter = new BoardRepainter(getContainer(), columnViews, deckView, foundationView, scoreView,
+				cardsLeftView);
 	}
 
 	/**
 	 * Initializes the controllers for the plugin.
 	 */
 	private void initializeControllers() {
+		// the default handlers only act on the game, so every widget shares them
+		SolitaireMouseMotionAdapter motionAdapter = new SolitaireMouseMotionAdapter(this);
+		SolitaireReleasedAdapter releasedAdapter = new SolitaireReleasedAdapter(this);
+		SolitaireUndoAdapter undoAdapter = new SolitaireUndoAdapter(this);
+
 		// set up the deck controllers
 		deckView.setMouseAdapter(new DeckController(this));
-		deckView.setMouseMotionAdapter(new SolitaireMouseMotionAdapter(this));
-		deckView.setUndoAdapter(new SolitaireUndoAdapter(this));
+		deckView.setMouseMotionAdapter(motionAdapter);
+		deckView.setUndoAdapter(undoAdapter);
 		
 		// set up the column controllers
 		for (int i = 0; i < 5; i++) {
 			columnViews[i].setMouseAdapter(new ColumnController(this, columnViews[i]));
-			columnViews[i].setMouseMotionAdapter(new SolitaireMouseMotionAdapter(this));
-			columnViews[i].setUndoAdapter(new SolitaireUndoAdapter(this));
+			columnViews[i].setMouseMotionAdapter(motionAdapter);
+			columnViews[i].setUndoAdapter(undoAdapter);
 		}
 		
 		// the foundation controllers
 		foundationView.setMouseAdapter(new FoundationController(this));
-		foundationView.setMouseMotionAdapter(new SolitaireMouseMotionAdapter(this));
-		foundationView.setUndoAdapter(new SolitaireUndoAdapter(this));
+		foundationView.setMouseMotionAdapter(motionAdapter);
+		foundationView.setUndoAdapter(undoAdapter);
 		
 		// set up the default handlers to handle basic functionality for the score/cards left views
-		cardsLeftView.setMouseMotionAdapter (new SolitaireMouseMotionAdapter(this));
-		cardsLeftView.setMouseAdapter (new SolitaireReleasedAdapter(this));
-		cardsLeftView.setUndoAdapter (new SolitaireUndoAdapter(this));
-		scoreView.setMouseMotionAdapter (new SolitaireMouseMotionAdapter(this));
-		scoreView.setMouseAdapter (new SolitaireReleasedAdapter(this));
-		scoreView.setUndoAdapter (new SolitaireUndoAdapter(this));
-
+		cardsLeftView.setMouseMotionAdapter(motionAdapter);
+		cardsLeftView.setMouseAdapter(releasedAdapter);
+		cardsLeftView.setUndoAdapter(undoAdapter);
+		scoreView.setMouseMotionAdapter(motionAdapter);
+		scoreView.setMouseAdapter(releasedAdapter);
+		scoreView.setUndoAdapter(undoAdapter);
 		
 		// finally cover the container for any events not handled by a widget
-		getContainer().setMouseMotionAdapter(new SolitaireMouseMotionAdapter(this));
-		getContainer().setMouseAdapter (new SolitaireReleasedAdapter(this));
-		getContainer().setUndoAdapter (new SolitaireUndoAdapter(this));
-
+		getContainer().setMouseMotionAdapter(motionAdapter);
+		getContainer().setMouseAdapter(releasedAdapter);
+		getContainer().setUndoAdapter(undoAdapter);
 	}
 	
 	/*
@@ -220,6 +283,291 @@ public class Baroness extends Solitaire implements SolvableSolitaire {
 	}
 	
 
+	/**
+	 * Only deals games which are proven to be winnable, taking their seeds
+	 * from a supply which is solved in the background. This has to be set
+	 * before the game is initialized.
+	 * @param winnableSeeds The supply of winnable seeds, or null to deal any
+	 *            game.
+	 */
+	public void setWinnableSeeds(WinnableSeedQueue winnableSeeds) {
+		this.winnableSeeds = winnableSeeds;
+	}
+
+	/**
+	 * Records every move which is made or undone from now on to a log. The
+	 * log should have been created with {@link #getDealtSeed()}.
+	 * @param moveLog The log to record to, or null to stop recording.
+	 */
+	public void setMoveLog(MoveLogWriter moveLog) {
+		this.moveLog = moveLog;
+	}
+
+	/* (non-Javadoc)
+	 * @see ks.common.games.Solitaire#pushMove(ks.common.model.Move)
+	 */
+	@Override
+	public boolean pushMove(Move move) {
+		if (!super.pushMove(move)) {
+			return false;
+		}
+		int encoded = encodeMove(move);
+		history.record(encoded);
+		if (moveLog != null) {
+			try {
+				moveLog.write(encoded);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		if (events != null) {
+			publish(EncodedMove.type(encoded) == EncodedMove.DEAL ? GameEvent.DEAL : GameEvent.MOVE, encoded);
+			if (hasWon()) {
+				publish(GameEvent.WON, encoded);
+			}
+		}
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see ks.common.games.Solitaire#popMove()
+	 */
+	@Override
+	public Move popMove() {
+		Move move = super.popMove();
+		if (move != null) {
+			history.undo();
+			if (moveLog != null) {
+				try {
+					moveLog.undo();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		}
+		return move;
+	}
+
+	/* (non-Javadoc)
+	 * @see ks.common.games.Solitaire#undoMove()
+	 */
+	@Override
+	public boolean undoMove() {
+		int position = history.getPosition();
+		if (super.undoMove()) {
+			if (events != null && history.getPosition() < position) {
+				publish(GameEvent.UNDO, history.getMove(position - 1));
+			}
+			return true;
+		}
+
+		// the moves made before a jump are only kept by the history
+		return history.canUndo() && jumpTo(history.getPosition() - 1);
+	}
+
+	/**
+	 * Makes the last move which was undone again.
+	 * @return Whether there was a move to redo.
+	 */
+	public boolean redoMove() {
+		if (!history.canRedo()) {
+			return false;
+		}
+		Move move = createMove(history.getMove(history.getPosition()));
+		if (!move.doMove(this)) {
+			return false;
+		}
+		return pushMove(move);
+	}
+
+	/**
+	 * Moves the game to an earlier or later point in its history, without
+	 * going through the moves in between. The moves on the undo stack no
+	 * longer apply afterwards, so they are dropped, but the history can still
+	 * undo and redo past the point. A move log records the jump as the undos
+	 * and moves it stands for.
+	 * @param index The number of moves from the start, between 0 and the size
+	 *            of the history.
+	 * @return Whether the game changed.
+	 * @throws IndexOutOfBoundsException If the point is not in the history.
+	 */
+	public boolean jumpTo(int index) {
+		int position = history.getPosition();
+		if (index == position) {
+			return false;
+		}
+		BaronessState state = history.jumpTo(index);
+		while (super.popMove() != null) {
+			// drop the moves without touching the history or the log
+		}
+		state.applyTo(this);
+
+		if (moveLog != null) {
+			try {
+				for (int i = index; i < position; i++) {
+					moveLog.undo();
+				}
+				for (int i = position; i < index; i++) {
+					moveLog.write(history.getMove(i));
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		if (events != null) {
+			publish(GameEvent.JUMP, 0);
+		}
+		return true;
+	}
+
+	/**
+	 * Publishes every move which is made, undone or jumped over from now on,
+	 * and winning the game, to a bus.
+	 * @param events The bus to publish to, or null to stop publishing.
+	 */
+	public void setEventBus(GameEventBus events) {
+		setEventBus(events, 0);
+	}
+
+	/**
+	 * Publishes every move which is made, undone or jumped over from now on,
+	 * and winning the game, to a bus which other games share.
+	 * @param events The bus to publish to, or null to stop publishing.
+	 * @param game The number which tells the game's events apart from those
+	 *            of the other games on the bus (see {@link GameEvent#game(long)}).
+	 */
+	public void setEventBus(GameEventBus events, int game) {
+		this.events = events;
+		this.eventGame = game;
+	}
+
+	/**
+	 * Publishes an event about the game as it is now.
+	 * @param type The type of the event.
+	 * @param move The encoded move the event is about.
+	 */
+	void publish(int type, int move) {
+		events.publish(GameEvent.encode(eventGame, type, move, getScoreValue(), getNumLeft().getValue(),
+				history.getPosition()));
+	}
+
+	/**
+	 * @return the moves which were made in the game
+	 */
+	public GameHistory getHistory() {
+		return history;
+	}
+
+	/**
+	 * Updates the index of the cards on top of the columns and marks the
+	 * column to be redrawn. Moves call this through
+	 * {@link TopCardIndex#columnChanged(Solitaire, Column)} whenever they
+	 * change a column, and controllers call it when they put back a card
+	 * which was dragged off a column. Columns of other games are ignored.
+	 * @param column The column which has changed.
+	 */
+	public void columnChanged(Column column) {
+		for (int i = 0; i < columns.length; i++) {
+			if (columns[i] == column) {
+				if (topCardIndex != null) {
+					topCardIndex.update(i);
+				}
+				if (repainter != null) {
+					repainter.columnChanged(i);
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Looks at every column again after the model was replaced, and marks the
+	 * whole board to be redrawn.
+	 */
+	public void columnsChanged() {
+		if (topCardIndex != null) {
+			topCardIndex.refresh();
+		}
+		if (repainter != null) {
+			repainter.markDirty(BoardRepainter.ALL);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see ks.common.games.Solitaire#updateScore(int)
+	 */
+	@Override
+	public void updateScore(int delta) {
+		super.updateScore(delta);
+		if (repainter != null) {
+			// only moves to the foundation change the score
+			repainter.markDirty(BoardRepainter.SCORE | BoardRepainter.FOUNDATION);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see ks.common.games.Solitaire#updateNumberCardsLeft(int)
+	 */
+	@Override
+	public void updateNumberCardsLeft(int delta) {
+		super.updateNumberCardsLeft(delta);
+		if (repainter != null) {
+			// only deals change the cards left
+			repainter.markDirty(BoardRepainter.CARDS_LEFT | BoardRepainter.DECK);
+		}
+	}
+
+	/**
+	 * @return the repainter of the views, or null for a game without views
+	 */
+	public BoardRepainter getRepainter() {
+		return repainter;
+	}
+
+	/**
+	 * @return the seed which the deck was dealt with, which differs from
+	 *         {@link #getSeed()} when only winnable games are dealt
+	 */
+	public int getDealtSeed() {
+		return dealtSeed;
+	}
+
+	/**
+	 * @return the deck which cards are dealt from
+	 */
+	public Deck getDeck() {
+		return deck;
+	}
+
+	/**
+	 * @return the columns from left to right, which must not be changed
+	 */
+	public Column[] getColumns() {
+		return columns;
+	}
+
+	/**
+	 * @param index The index of the column, from 0 on the left.
+	 * @return the column
+	 */
+	public Column getColumn(int index) {
+		return columns[index];
+	}
+
+	/**
+	 * @return the foundation pile which cards are played to
+	 */
+	public Pile getFoundation() {
+		return foundation;
+	}
+
+	/**
+	 * @return the index of the cards on top of the columns
+	 */
+	public TopCardIndex getTopCardIndex() {
+		return topCardIndex;
+	}
+
 	/**
 	 * @return the deckView
 	 */
@@ -242,10 +590,22 @@ public class Baroness extends Solitaire implements SolvableSolitaire {
 	}
 
 	/** 
-	 * Launches the Baroness Solitaire variation.
+	 * Launches the Baroness Solitaire variation. With the {@code -winnable}
+	 * argument, only deals which can be won are played, and the window opens
+	 * once the first of them is solved.
+	 * @param args The command line arguments.
+	 * @throws InterruptedException If interrupted while waiting for the first
+	 *             winnable deal.
 	 */
-	public static void main (String []args) {
-		Main.generateWindow(new Baroness(), (int) System.currentTimeMillis());
+	public static void main (String []args) throws InterruptedException {
+		Baroness game = new Baroness();
+		if (args.length > 0 && args[0].equals("-winnable")) {
+			WinnableSeedQueue seeds = new WinnableSeedQueue(8, 1000, System.currentTimeMillis());
+			seeds.start();
+			seeds.awaitSpare(); // so the first game is dealt without solving
+			game.setWinnableSeeds(seeds);
+		}
+		Main.generateWindow(game, (int) System.currentTimeMillis());
 	}
 
 	/* (non-Javadoc)
@@ -253,42 +613,60 @@ public class Baroness extends Solitaire implements SolvableSolitaire {
 	 */
 	@Override
 	public Enumeration<Move> availableMoves() {
-		ArrayList<Move> moves = new ArrayList<Move>();
+		int[] buffer = new int[EncodedMove.MAX_MOVES];
+		int count = availableMoves(buffer);
 
-		// try to play any Kings on the board
-		for (int i = 0; i < 5; i++) {
-			PlayKingMove move = new PlayKingMove(columns[i], foundation);
-			if (move.valid(this)) {
-				moves.add(move);
-			}
+		// only create the moves which are valid
+		ArrayList<Move> moves = new ArrayList<Move>(count);
+		for (int i = 0; i < count; i++) {
+			moves.add(createMove(buffer[i]));
 		}
+		return Collections.enumeration(moves);
+	}
 
-		// try to play any available pairs
-		for (int i = 0; i < 5; i++) {
-			for (int j = 0; j < 5; j++) {
-				PlayPairMove move = new PlayPairMove(columns[i], columns[j], foundation);
-				if (move.valid(this)) {
-					moves.add(move);
-				}
-			}
-		}
+	/**
+	 * Writes every valid move into a buffer without creating any objects or
+	 * looking at any cards, using the {@link TopCardIndex} of the game.
+	 * @param buffer The buffer to write the encoded moves to, with room for at
+	 *            least {@link EncodedMove#MAX_MOVES} moves.
+	 * @return The number of moves written.
+	 * @see EncodedMove
+	 */
+	public int availableMoves(int[] buffer) {
+		return topCardIndex.generate(deck.count(), buffer);
+	}
 
-		// try to move cards to empty columns
-		for (int i = 0; i < 5; i++) {
-			for (int j = 0; j < 5; j++) {
-				MoveCardToEmptyColumnMove move = new MoveCardToEmptyColumnMove(columns[i], columns[j]);
-				if (move.valid(this)) {
-					moves.add(move);
-				}
-			}
-		}
-		
-		// try to deal cards
-		DealCardsMove move = new DealCardsMove(deck, columns);
-		if (move.valid(this)) {
-			moves.add(move);
+	/**
+	 * Encodes a move which was made on this game's model.
+	 * @param move The move, which has to be one of the moves in
+	 *            {@link krconverse.baroness.move}.
+	 * @return The encoded move.
+	 * @see EncodedMove
+	 */
+	public int encodeMove(Move move) {
+		if (!(move instanceof EncodableMove)) {
+			throw new IllegalArgumentException("Not a Baroness move: " + move);
 		}
+		return ((EncodableMove) move).encode(columns);
+	}
 
-		return Collections.enumeration(moves);
+	/**
+	 * Creates the move for an encoded move on this game's model.
+	 * @param move The encoded move.
+	 * @return The move.
+	 */
+	public Move createMove(int move) {
+		int source = EncodedMove.source(move);
+		int target = EncodedMove.target(move);
+		switch (EncodedMove.type(move)) {
+		case EncodedMove.KING:
+			return new PlayKingMove(columns[source], foundation);
+		case EncodedMove.PAIR:
+			return new PlayPairMove(columns[source], columns[target], foundation);
+		case EncodedMove.EMPTY_COLUMN:
+			return new MoveCardToEmptyColumnMove(columns[source], columns[target]);
+		default:
+			return new DealCardsMove(deck, columns);
+		}
 	}
 }
@@ -16,7 +16,6 @@ import krconverse.baroness.move.PlayPairMove;
 import ks.common.model.Card;
 import ks.common.model.Column;
 import ks.common.model.Move;
-import ks.common.model.Pile;
 import ks.common.view.CardView;
 import ks.common.view.ColumnView;
 import ks.common.view.Container;
@@ -89,6 +88,7 @@ public class ColumnController extends MouseAdapter {
 		if (sourceWidget == view) {
 			// cards is being dragged from the same column
 			column.add(cardBeingDragged);
+			game.columnChanged(column);
 		} else {
 			// the card being dragged came from another column
 			ColumnView sourceColumnView = (ColumnView) sourceWidget;
@@ -100,7 +100,7 @@ public class ColumnController extends MouseAdapter {
 				move = new MoveCardToEmptyColumnMove(sourceColumn, column, cardBeingDragged);
 			} else {
 				// play the pair
-				move = new PlayPairMove(sourceColumn, column, cardBeingDragged, (Pile) game.getModelElement("foundation"));
+				move = new PlayPairMove(sourceColumn, column, cardBeingDragged, game.getFoundation());
 			}
 			// make the move
 			if (move.doMove (game)) {
@@ -108,11 +108,13 @@ public class ColumnController extends MouseAdapter {
 			} else {
 				// couldn't do the move
 				sourceColumn.add(cardBeingDragged);
+				game.columnChanged(sourceColumn);
 			}
 		}
 
+		// only repaint where the card was dropped, the moves mark the rest
+		game.getRepainter().widgetMoved(draggedWidget);
 		container.releaseDraggingObject();
-		container.repaint();
 	}
 
 
@@ -124,7 +126,7 @@ public class ColumnController extends MouseAdapter {
 		super.mouseClicked(event);
 		// playing a King
 		Column column = (Column) view.getModelElement();
-		PlayKingMove move = new PlayKingMove(column, (Pile) game.getModelElement("foundation"));
+		PlayKingMove move = new PlayKingMove(column, game.getFoundation());
 		if (move.doMove (game)) {
 			// played the pair successfully
 			game.pushMove(move);
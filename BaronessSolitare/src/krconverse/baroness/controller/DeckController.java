@@ -12,7 +12,6 @@ import krconverse.Baroness;
 import krconverse.baroness.move.DealCardsMove;
 import ks.common.model.Card;
 import ks.common.model.Column;
-import ks.common.model.Deck;
 import ks.common.model.Move;
 import ks.common.view.ColumnView;
 import ks.common.view.Container;
@@ -38,19 +37,11 @@ public class DeckController extends MouseAdapter {
 	@Override
 	public void mouseClicked(MouseEvent event) {
 		super.mouseClicked(event);
-		Deck deck = (Deck) game.getModelElement("deck");
-		
-		Column[] columns = new Column[5];
-		for (int i = 0; i < 5; i++) {
-			columns[i] = (Column) game.getModelElement("col" + (i + 1));
-		}
-
-		Move move = new DealCardsMove(deck, columns);
+		Move move = new DealCardsMove(game.getDeck(), game.getColumns());
 		if (move.doMove(game)) {
 			// move was successful
 			game.pushMove(move);
-			game.refreshWidgets();
-		}	
+		}
 	}
 
 	/* (non-Javadoc)
@@ -77,8 +68,9 @@ public class DeckController extends MouseAdapter {
 		
 		// just cancel the drag
 		sourceColumn.add(cardBeingDragged);
+		game.columnChanged(sourceColumn);
 		
+		game.getRepainter().widgetMoved(draggedWidget);
 		container.releaseDraggingObject();
-		container.repaint();
 	}
 }
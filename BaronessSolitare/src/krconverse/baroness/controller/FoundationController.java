@@ -13,7 +13,6 @@ import krconverse.Baroness;
 import krconverse.baroness.move.PlayKingMove;
 import ks.common.model.Card;
 import ks.common.model.Column;
-import ks.common.model.Pile;
 import ks.common.view.ColumnView;
 import ks.common.view.Container;
 import ks.common.view.Widget;
@@ -56,17 +55,19 @@ public class FoundationController extends MouseAdapter {
 		Card cardBeingDragged = (Card) draggedWidget.getModelElement();
 		
 		// the user is playing a card
-		PlayKingMove move = new PlayKingMove(sourceColumn, cardBeingDragged, (Pile) game.getModelElement("foundation"));
+		PlayKingMove move = new PlayKingMove(sourceColumn, cardBeingDragged, game.getFoundation());
 		// make the move
 		if (move.doMove (game)) {
 			game.pushMove(move);
 		} else {
 			// couldn't do the move
 			sourceColumn.add(cardBeingDragged);
+			game.columnChanged(sourceColumn);
 		}
 		
+		// only repaint where the card was dropped, the moves mark the rest
+		game.getRepainter().widgetMoved(draggedWidget);
 		container.releaseDraggingObject();
-		container.repaint();
 	}
 
 }
@@ -0,0 +1,132 @@
+/**
+ * GameEvent.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.event;
+
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * Encodes the events of a game of Baroness as single longs, so that they can
+ * be published into a {@link GameEventBus} without creating any objects.
+ * <p>
+ * An event packs the number of its game into bits 48-63, its type into bits
+ * 40-47, the encoded move into bits 32-39, the score after the event into
+ * bits 24-31, the cards left in the deck into bits 16-23 and the number of
+ * moves made so far into bits 0-15. The game number tells apart the games
+ * sharing a {@link GameEventBus}, and is 0 for a game with a bus of its own.
+ */
+public final class GameEvent {
+	/** A King or a pair was played, or a card was moved to an empty column. */
+	public static final int MOVE = 0;
+	/** Cards were dealt from the deck. */
+	public static final int DEAL = 1;
+	/** The last move was undone. */
+	public static final int UNDO = 2;
+	/** The game jumped to another point in its history. */
+	public static final int JUMP = 3;
+	/** The last card was played to the foundation. */
+	public static final int WON = 4;
+
+	/**
+	 * Events are only used through the static methods.
+	 */
+	private GameEvent() {
+	}
+
+	/**
+	 * Encodes an event of a game with a bus of its own.
+	 * @param type The type of the event.
+	 * @param move The encoded move the event is about, or 0 if there is none.
+	 * @param score The score after the event.
+	 * @param cardsLeft The cards left in the deck after the event.
+	 * @param position The number of moves made after the event.
+	 * @return The encoded event.
+	 */
+	public static long encode(int type, int move, int score, int cardsLeft, int position) {
+		return encode(0, type, move, score, cardsLeft, position);
+	}
+
+	/**
+	 * @param game The number of the game, which tells it apart from the other
+	 *            games sharing the bus.
+	 * @param type The type of the event.
+	 * @param move The encoded move the event is about, or 0 if there is none.
+	 * @param score The score after the event.
+	 * @param cardsLeft The cards left in the deck after the event.
+	 * @param position The number of moves made after the event.
+	 * @return The encoded event.
+	 */
+	public static long encode(int game, int type, int move, int score, int cardsLeft, int position) {
+		return (long) (game & 0xFFFF) << 48 | (long) (type & 0xFF) << 40 | (long) (move & 0xFF) << 32
+				| (long) (score & 0xFF) << 24 | (cardsLeft & 0xFF) << 16 | position & 0xFFFF;
+	}
+
+	/**
+	 * @param event An encoded event.
+	 * @return The number of the game the event happened in.
+	 */
+	public static int game(long event) {
+		return (int) (event >>> 48);
+	}
+
+	/**
+	 * @param event An encoded event.
+	 * @return The type of the event.
+	 */
+	public static int type(long event) {
+		return (int) (event >>> 40) & 0xFF;
+	}
+
+	/**
+	 * @param event An encoded event.
+	 * @return The encoded move the event is about.
+	 */
+	public static int move(long event) {
+		return (int) (event >>> 32) & 0xFF;
+	}
+
+	/**
+	 * @param event An encoded event.
+	 * @return The score after the event.
+	 */
+	public static int score(long event) {
+		return (int) (event >>> 24) & 0xFF;
+	}
+
+	/**
+	 * @param event An encoded event.
+	 * @return The cards left in the deck after the event.
+	 */
+	public static int cardsLeft(long event) {
+		return (int) (event >>> 16) & 0xFF;
+	}
+
+	/**
+	 * @param event An encoded event.
+	 * @return The number of moves made after the event.
+	 */
+	public static int position(long event) {
+		return (int) event & 0xFFFF;
+	}
+
+	/**
+	 * @param event An encoded event.
+	 * @return A readable description of the event.
+	 */
+	public static String toString(long event) {
+		String state = " score=" + score(event) + " left=" + cardsLeft(event) + " at=" + position(event);
+		switch (type(event)) {
+		case MOVE:
+		case DEAL:
+			return EncodedMove.toString(move(event)) + state;
+		case UNDO:
+			return "undo " + EncodedMove.toString(move(event)) + state;
+		case JUMP:
+			return "jump" + state;
+		default:
+			return "won" + state;
+		}
+	}
+}
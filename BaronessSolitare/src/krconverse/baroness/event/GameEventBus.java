@@ -0,0 +1,226 @@
+/**
+ * GameEventBus.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.event;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Streams the events of games to any number of listeners, without slowing
+ * down the thread making the moves.
+ * <p>
+ * Events are written into a ring of longs and never wait for a listener.
+ * Each {@link Subscription} reads the ring at its own pace, in batches, on
+ * whichever thread drains it: either by calling {@link #drain()} or on the
+ * bus's own thread after {@link #start(long)}. A listener which falls as far
+ * behind as the size of the ring loses the oldest events it had not read, as
+ * the publisher may be overwriting them, and its subscription counts them.
+ * The slots of the ring are written and read as atomic longs, so a reader
+ * which checks the count of published events after copying a batch knows
+ * that nothing it copied was overwritten unless the count says so.
+ * <p>
+ * Events must only be published from one thread at a time, such as the
+ * event dispatch thread of the games sharing the bus. Games sharing a bus
+ * tell their events apart by the game number in each event (see
+ * {@link GameEvent#game(long)}).
+ */
+public class GameEventBus {
+	/** The number of events kept by a bus unless another number is given. */
+	public static final int DEFAULT_CAPACITY = 4096;
+	/** The largest number of events handed to a listener at once. */
+	public static final int BATCH_SIZE = 256;
+
+	final AtomicLongArray ring; // events by their sequence number modulo the capacity
+	final int mask; // picks the slot of a sequence number
+	final AtomicLong published = new AtomicLong(); // number of events published so far
+	final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<Subscription>();
+	ScheduledExecutorService drainer; // thread draining the subscriptions, or null
+
+	/**
+	 * A listener's place in the stream.
+	 */
+	public class Subscription {
+		final GameEventListener listener;
+		final long[] batch = new long[BATCH_SIZE]; // events copied out of the ring
+		long cursor; // sequence number of the next event to read
+		long missed; // events which were overwritten before they were read
+
+		/**
+		 * Creates a new subscription which starts with the next event.
+		 * @param listener The listener to hand the events to.
+		 */
+		Subscription(GameEventListener listener) {
+			this.listener = listener;
+			this.cursor = published.get();
+		}
+
+		/**
+		 * Hands every event published so far to the listener.
+		 * @return The number of events handed over.
+		 */
+		synchronized int drain() {
+			int delivered = 0;
+			while (true) {
+				long available = published.get();
+				if (cursor == available) {
+					return delivered;
+				}
+
+				// copy a batch out of the ring, skipping what was overwritten
+				long from = Math.max(cursor, available - ring.length() + 1);
+				long to = Math.min(available, from + batch.length);
+				for (long i = from; i < to; i++) {
+					batch[(int) (i - from)] = ring.get((int) i & mask);
+				}
+
+				// anything the publisher may have started to overwrite meanwhile is lost too
+				long valid = Math.max(from, published.get() - ring.length() + 1);
+				if (valid >= to) {
+					missed += to - cursor;
+					cursor = to;
+					continue;
+				}
+				missed += valid - cursor;
+				cursor = to;
+				listener.eventsPublished(batch, (int) (valid - from), (int) (to - valid));
+				delivered += (int) (to - valid);
+			}
+		}
+
+		/**
+		 * @return The number of events which were lost because the listener
+		 *         fell too far behind.
+		 */
+		public synchronized long getMissed() {
+			return missed;
+		}
+
+		/**
+		 * @return The number of events published which have not been read.
+		 */
+		public synchronized long getBacklog() {
+			return published.get() - cursor;
+		}
+
+		/**
+		 * Stops handing events to the listener.
+		 */
+		public void cancel() {
+			subscriptions.remove(this);
+		}
+	}
+
+	/**
+	 * Creates a new bus which keeps the default number of events.
+	 */
+	public GameEventBus() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new bus.
+	 * @param capacity The number of events kept for listeners which fall
+	 *            behind, which is rounded up to a power of two.
+	 */
+	public GameEventBus(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Need room for at least one event, not " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		this.ring = new AtomicLongArray(size);
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Publishes an event. This never waits for the listeners.
+	 * @param event The encoded event.
+	 * @see GameEvent
+	 */
+	public void publish(long event) {
+		long sequence = published.get();
+		ring.lazySet((int) sequence & mask, event);
+		published.lazySet(sequence + 1);
+	}
+
+	/**
+	 * Subscribes a listener to the events published from now on.
+	 * @param listener The listener.
+	 * @return The subscription of the listener.
+	 */
+	public Subscription subscribe(GameEventListener listener) {
+		Subscription subscription = new Subscription(listener);
+		subscriptions.add(subscription);
+		return subscription;
+	}
+
+	/**
+	 * Hands the events published so far to every listener, on the calling
+	 * thread.
+	 * @return The number of events handed over, added up for all listeners.
+	 */
+	public int drain() {
+		int delivered = 0;
+		for (Subscription subscription : subscriptions) {
+			delivered += subscription.drain();
+		}
+		return delivered;
+	}
+
+	/**
+	 * Starts draining the listeners regularly on a thread of the bus's own.
+	 * A listener which throws an exception stops the thread.
+	 * @param periodMillis The time between batches, in milliseconds.
+	 */
+	public synchronized void start(long periodMillis) {
+		if (drainer != null) {
+			return;
+		}
+		drainer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Baroness events");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		drainer.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				drain();
+			}
+		}, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the bus's thread, after handing over any events left.
+	 * @throws InterruptedException If interrupted while waiting for the
+	 *             thread to stop.
+	 */
+	public synchronized void stop() throws InterruptedException {
+		if (drainer == null) {
+			return;
+		}
+		drainer.shutdown();
+		drainer.awaitTermination(1, TimeUnit.MINUTES);
+		drainer = null;
+		drain();
+	}
+
+	/**
+	 * @return The number of events published so far.
+	 */
+	public long getPublished() {
+		return published.get();
+	}
+}
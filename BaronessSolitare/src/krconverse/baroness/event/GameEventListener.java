@@ -0,0 +1,22 @@
+/**
+ * GameEventListener.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.event;
+
+/**
+ * Receives the events of a {@link GameEventBus} in batches.
+ */
+public interface GameEventListener {
+	/**
+	 * Handles a batch of events, in the order they were published. The
+	 * buffer is reused for the next batch, so events must be copied to be
+	 * kept.
+	 * @param events The buffer holding the events, encoded as described in
+	 *            {@link GameEvent}.
+	 * @param offset The index of the first event in the buffer.
+	 * @param count The number of events.
+	 */
+	void eventsPublished(long[] events, int offset, int count);
+}
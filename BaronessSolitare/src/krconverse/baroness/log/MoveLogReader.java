@@ -0,0 +1,61 @@
+/**
+ * MoveLogReader.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.log;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the records of a log written by a {@link MoveLogWriter}.
+ */
+public class MoveLogReader implements Closeable {
+	final DataInputStream in;
+	final int seed; // seed the game was dealt with
+
+	/**
+	 * Opens a log and reads its header.
+	 * @param in The stream to read the log from.
+	 * @throws IOException If the stream does not hold a move log.
+	 */
+	public MoveLogReader(InputStream in) throws IOException {
+		this.in = new DataInputStream(in);
+		if (this.in.readInt() != MoveLogWriter.MAGIC) {
+			throw new IOException("Not a Baroness move log");
+		}
+		int version = this.in.readUnsignedByte();
+		if (version != MoveLogWriter.VERSION) {
+			throw new IOException("Unsupported move log version " + version);
+		}
+		this.seed = this.in.readInt();
+	}
+
+	/**
+	 * @return The seed the game was dealt with.
+	 */
+	public int getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Reads the next record.
+	 * @return The encoded move, {@link MoveLogWriter#UNDO}, or -1 at the end
+	 *         of the log.
+	 * @throws IOException If the log could not be read.
+	 */
+	public int next() throws IOException {
+		return in.read();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
@@ -0,0 +1,87 @@
+/**
+ * MoveLogReplay.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * Rebuilds positions from move logs without a window or any model elements.
+ * <p>
+ * The deal is recreated from the seed in the header and the records are
+ * applied to a {@link BaronessState}, checking that every move follows the
+ * rules, so a log which replays without an error is a legal game. A position
+ * can be shown in a game again with {@link BaronessState#applyTo(krconverse.Baroness)}.
+ */
+public final class MoveLogReplay {
+
+	/**
+	 * Replays are only made through the static methods.
+	 */
+	private MoveLogReplay() {
+	}
+
+	/**
+	 * Replays a whole log.
+	 * @param in The stream to read the log from.
+	 * @return The position at the end of the log.
+	 * @throws IOException If the log could not be read or holds an invalid
+	 *             move.
+	 */
+	public static BaronessState replay(InputStream in) throws IOException {
+		return replay(new MoveLogReader(in), -1);
+	}
+
+	/**
+	 * Replays the start of a log.
+	 * @param reader The log to replay.
+	 * @param records The number of records to replay, or -1 for all of them.
+	 * @return The position after the records were replayed.
+	 * @throws IOException If the log could not be read or holds an invalid
+	 *             move.
+	 */
+	public static BaronessState replay(MoveLogReader reader, int records) throws IOException {
+		ArrayList<BaronessState> history = new ArrayList<BaronessState>(); // positions the undo records go back to
+		BaronessState state = BaronessState.fromSeed(reader.getSeed());
+		for (int i = 0; records < 0 || i < records; i++) {
+			int record = reader.next();
+			if (record < 0) {
+				if (records < 0) {
+					break;
+				}
+				throw new IOException("The log ends after " + i + " records");
+			}
+
+			if (record == MoveLogWriter.UNDO) {
+				if (history.isEmpty()) {
+					throw new IOException("Record " + i + " undoes a move which was never made");
+				}
+				state = history.remove(history.size() - 1);
+			} else if (state.isValid(record)) {
+				history.add(state);
+				state = state.apply(record);
+			} else {
+				throw new IOException("Record " + i + " is not a valid move: " + EncodedMove.toString(record));
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Replays a log of a completed game and checks that it was won.
+	 * @param in The stream to read the log from.
+	 * @return Whether the game ends with a win.
+	 * @throws IOException If the log could not be read or holds an invalid
+	 *             move.
+	 */
+	public static boolean verify(InputStream in) throws IOException {
+		return replay(in).hasWon();
+	}
+}
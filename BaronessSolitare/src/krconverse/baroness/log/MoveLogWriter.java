@@ -0,0 +1,91 @@
+/**
+ * MoveLogWriter.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.log;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the moves of a game to a compact binary log.
+ * <p>
+ * A log starts with a header holding {@link #MAGIC}, {@link #VERSION} and the
+ * seed the game was dealt with, followed by one byte for every move: the
+ * encoded move itself (see {@link krconverse.baroness.state.EncodedMove}), or
+ * {@link #UNDO} when the last move was undone. A whole game of Baroness fits
+ * in well under a hundred bytes, and the game can be rebuilt from the log by
+ * {@link MoveLogReplay}.
+ */
+public class MoveLogWriter implements Closeable {
+	/** The first four bytes of every move log. */
+	public static final int MAGIC = 0x42524C47;
+	/** The version of the format which is written. */
+	public static final int VERSION = 1;
+	/** The record written when the last move is undone, which is never a valid move. */
+	public static final int UNDO = 0xFF;
+
+	final DataOutputStream out;
+	int records; // number of records written so far
+
+	/**
+	 * Creates a new log and writes its header.
+	 * @param out The stream to write the log to.
+	 * @param seed The seed the game was dealt with.
+	 * @throws IOException If the header could not be written.
+	 */
+	public MoveLogWriter(OutputStream out, int seed) throws IOException {
+		this.out = new DataOutputStream(out);
+		this.out.writeInt(MAGIC);
+		this.out.writeByte(VERSION);
+		this.out.writeInt(seed);
+	}
+
+	/**
+	 * Records a move which was made.
+	 * @param move The encoded move.
+	 * @throws IOException If the record could not be written.
+	 */
+	public void write(int move) throws IOException {
+		if (move < 0 || move >= UNDO) {
+			throw new IllegalArgumentException("Not an encoded move: " + move);
+		}
+		out.writeByte(move);
+		records++;
+	}
+
+	/**
+	 * Records that the last move was undone.
+	 * @throws IOException If the record could not be written.
+	 */
+	public void undo() throws IOException {
+		out.writeByte(UNDO);
+		records++;
+	}
+
+	/**
+	 * @return The number of records written so far.
+	 */
+	public int getRecords() {
+		return records;
+	}
+
+	/**
+	 * Writes out any records which are still buffered.
+	 * @throws IOException If the records could not be written.
+	 */
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
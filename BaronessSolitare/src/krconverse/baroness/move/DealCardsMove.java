@@ -5,6 +5,8 @@
  */
 package krconverse.baroness.move;
 
+import krconverse.baroness.state.EncodedMove;
+import krconverse.baroness.state.TopCardIndex;
 import ks.common.games.Solitaire;
 import ks.common.model.Column;
 import ks.common.model.Deck;
@@ -13,7 +15,7 @@ import ks.common.model.Move;
 /**
  * The move which deals cards from the deck to the columns.
  */
-public class DealCardsMove extends Move {
+public class DealCardsMove extends Move implements EncodableMove {
 	Deck deck;
 	Column[] columns;
 	int cardsMoved;
@@ -43,6 +45,7 @@ public class DealCardsMove extends Move {
 		if (isValid) {
 			for (int i = 0; i < cardsMoved; i++) {
 				columns[columns.length - 1 - i].add(deck.get());
+				TopCardIndex.columnChanged(game, columns[columns.length - 1 - i]);
 			}
 			game.updateNumberCardsLeft(-1 * cardsMoved);
 			return true;
@@ -59,6 +62,7 @@ public class DealCardsMove extends Move {
 		if (isValid) {
 			for (int i = 0; i < cardsMoved; i++) {
 				deck.add(columns[columns.length - cardsMoved + i].get());
+				TopCardIndex.columnChanged(game, columns[columns.length - cardsMoved + i]);
 			}
 			game.updateNumberCardsLeft(cardsMoved);
 			return true;
@@ -67,6 +71,14 @@ public class DealCardsMove extends Move {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.move.EncodableMove#encode(ks.common.model.Column[])
+	 */
+	@Override
+	public int encode(Column[] columns) {
+		return EncodedMove.encode(EncodedMove.DEAL, 0, 0);
+	}
+
 	/* (non-Javadoc)
 	 * @see ks.common.model.Move#valid(ks.common.games.Solitaire)
 	 */
@@ -0,0 +1,22 @@
+/**
+ * EncodableMove.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.move;
+
+import ks.common.model.Column;
+
+/**
+ * A Baroness move which can be written as an encoded move (see
+ * {@link krconverse.baroness.state.EncodedMove}).
+ */
+public interface EncodableMove {
+
+	/**
+	 * Encodes the move.
+	 * @param columns The columns of the game, from left to right.
+	 * @return The encoded move.
+	 */
+	int encode(Column[] columns);
+}
@@ -5,6 +5,8 @@
  */
 package krconverse.baroness.move;
 
+import krconverse.baroness.state.EncodedMove;
+import krconverse.baroness.state.TopCardIndex;
 import ks.common.games.Solitaire;
 import ks.common.model.Card;
 import ks.common.model.Column;
@@ -13,7 +15,7 @@ import ks.common.model.Move;
 /**
  * A move which moves a card to an empty column.
  */
-public class MoveCardToEmptyColumnMove extends Move {
+public class MoveCardToEmptyColumnMove extends Move implements EncodableMove {
 	Column sourceColumn;
 	Column targetColumn;
 	Card cardBeingDragged;
@@ -58,6 +60,8 @@ public class MoveCardToEmptyColumnMove extends Move {
 	public boolean doMove(Solitaire game) {
 		if (isValid) {
 			targetColumn.add(cardBeingDragged == null ? sourceColumn.get() : cardBeingDragged);
+			TopCardIndex.columnChanged(game, sourceColumn);
+			TopCardIndex.columnChanged(game, targetColumn);
 			return true;
 		} else {
 			return false;
@@ -71,12 +75,23 @@ public class MoveCardToEmptyColumnMove extends Move {
 	public boolean undo(Solitaire game) {
 		if (isValid) {
 			sourceColumn.add(targetColumn.get());
+			TopCardIndex.columnChanged(game, sourceColumn);
+			TopCardIndex.columnChanged(game, targetColumn);
 			return true;
 		} else {
 			return false;
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.move.EncodableMove#encode(ks.common.model.Column[])
+	 */
+	@Override
+	public int encode(Column[] columns) {
+		return EncodedMove.encode(EncodedMove.EMPTY_COLUMN, EncodedMove.indexOf(columns, sourceColumn),
+				EncodedMove.indexOf(columns, targetColumn));
+	}
+
 	/* (non-Javadoc)
 	 * @see ks.common.model.Move#valid(ks.common.games.Solitaire)
 	 */
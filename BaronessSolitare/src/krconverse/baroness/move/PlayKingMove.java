@@ -5,6 +5,8 @@
  */
 package krconverse.baroness.move;
 
+import krconverse.baroness.state.EncodedMove;
+import krconverse.baroness.state.TopCardIndex;
 import ks.common.games.Solitaire;
 import ks.common.model.Card;
 import ks.common.model.Column;
@@ -14,7 +16,7 @@ import ks.common.model.Pile;
 /**
  * A move which plays a King card.
  */
-public class PlayKingMove extends Move {
+public class PlayKingMove extends Move implements EncodableMove {
 	Column sourceColumn;
 	Card card;
 	Pile foundation;
@@ -59,6 +61,7 @@ public class PlayKingMove extends Move {
 	public boolean doMove(Solitaire game) {
 		if (isValid) {
 			foundation.add(card == null ? sourceColumn.get() : card);
+			TopCardIndex.columnChanged(game, sourceColumn);
 			game.updateScore(-1);
 			return true;
 		} else {
@@ -73,6 +76,7 @@ public class PlayKingMove extends Move {
 	public boolean undo(Solitaire game) {
 		if (isValid) {
 			sourceColumn.add(foundation.get());
+			TopCardIndex.columnChanged(game, sourceColumn);
 			game.updateScore(1);
 			return true;
 		} else {
@@ -80,6 +84,14 @@ public class PlayKingMove extends Move {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.move.EncodableMove#encode(ks.common.model.Column[])
+	 */
+	@Override
+	public int encode(Column[] columns) {
+		return EncodedMove.encode(EncodedMove.KING, EncodedMove.indexOf(columns, sourceColumn), 0);
+	}
+
 	/* (non-Javadoc)
 	 * @see ks.common.model.Move#valid(ks.common.games.Solitaire)
 	 */
@@ -5,6 +5,8 @@
  */
 package krconverse.baroness.move;
 
+import krconverse.baroness.state.EncodedMove;
+import krconverse.baroness.state.TopCardIndex;
 import ks.common.games.Solitaire;
 import ks.common.model.Card;
 import ks.common.model.Column;
@@ -14,7 +16,7 @@ import ks.common.model.Pile;
 /**
  * A move which plays two cards which add up to thirteen.
  */
-public class PlayPairMove extends Move {
+public class PlayPairMove extends Move implements EncodableMove {
 	Column sourceColumn;
 	Column targetColumn;
 	Card cardBeingDragged;
@@ -65,6 +67,8 @@ public class PlayPairMove extends Move {
 		if (isValid) {
 			foundation.add(targetColumn.get());
 			foundation.add(cardBeingDragged == null ? sourceColumn.get() : cardBeingDragged);
+			TopCardIndex.columnChanged(game, sourceColumn);
+			TopCardIndex.columnChanged(game, targetColumn);
 			game.updateScore(-2);
 			return true;
 		} else {
@@ -80,6 +84,8 @@ public class PlayPairMove extends Move {
 		if (isValid) {
 			sourceColumn.add(foundation.get());
 			targetColumn.add(foundation.get());
+			TopCardIndex.columnChanged(game, sourceColumn);
+			TopCardIndex.columnChanged(game, targetColumn);
 			game.updateScore(2);
 			return true;
 		} else {
@@ -87,6 +93,15 @@ public class PlayPairMove extends Move {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.move.EncodableMove#encode(ks.common.model.Column[])
+	 */
+	@Override
+	public int encode(Column[] columns) {
+		return EncodedMove.encode(EncodedMove.PAIR, EncodedMove.indexOf(columns, sourceColumn),
+				EncodedMove.indexOf(columns, targetColumn));
+	}
+
 	/* (non-Javadoc)
 	 * @see ks.common.model.Move#valid(ks.common.games.Solitaire)
 	 */
@@ -0,0 +1,143 @@
+/**
+ * GameSession.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.server;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+import krconverse.baroness.state.BaronessState;
+
+/**
+ * A headless game hosted by a {@link SessionManager}.
+ * <p>
+ * A session only holds its first and current {@link BaronessState} and a
+ * stack of the encoded moves made so far, a byte each, which is used to undo
+ * them, so it takes up a few kilobytes at most. Commands for a session are
+ * run one at a time and in the order they were sent, on the thread pool
+ * shared by every session, so a session never needs a thread of its own and
+ * its game is never touched by two threads at once.
+ */
+public class GameSession implements Executor {
+	final long id;
+	final int seed; // seed the game was dealt with
+	final Executor pool; // threads shared by every session
+
+	final BaronessState start; // position the game was dealt in
+	BaronessState state; // current position
+	byte[] moves = new byte[64]; // stack of encoded moves made so far
+	int moveCount; // number of moves on the stack
+
+	final ArrayDeque<Runnable> commands = new ArrayDeque<Runnable>(2); // commands waiting to run
+	Runnable active; // command running or about to run, or null
+
+	/**
+	 * Creates a new session with a freshly dealt game.
+	 * @param id The identifier of the session.
+	 * @param seed The seed to deal the game with.
+	 * @param pool The threads to run commands on.
+	 */
+	GameSession(long id, int seed, Executor pool) {
+		this.id = id;
+		this.seed = seed;
+		this.pool = pool;
+		this.start = BaronessState.fromSeed(seed);
+		this.state = start;
+	}
+
+	/**
+	 * Queues a command to run after the commands which were sent before it.
+	 * @param command The command to run.
+	 */
+	@Override
+	public synchronized void execute(final Runnable command) {
+		commands.add(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					command.run();
+				} finally {
+					next();
+				}
+			}
+		});
+		if (active == null) {
+			next();
+		}
+	}
+
+	/**
+	 * Hands the next waiting command to the pool.
+	 */
+	synchronized void next() {
+		active = commands.poll();
+		if (active != null) {
+			pool.execute(active);
+		}
+	}
+
+	/**
+	 * Makes a move, if it follows the rules. Only called from a command.
+	 * @param move The encoded move.
+	 * @return Whether the move was made.
+	 */
+	boolean move(int move) {
+		if (!state.isValid(move)) {
+			return false;
+		}
+		state = state.apply(move);
+		if (moveCount == moves.length) {
+			moves = Arrays.copyOf(moves, moves.length * 2);
+		}
+		moves[moveCount++] = (byte) move;
+		return true;
+	}
+
+	/**
+	 * Takes back the last move made. Only called from a command.
+	 * <p>
+	 * Positions cannot be played backwards, so the game is replayed from the
+	 * deal without the last move, which takes well under a hundred moves.
+	 * @return Whether there was a move to take back.
+	 */
+	boolean undo() {
+		if (moveCount == 0) {
+			return false;
+		}
+		moveCount--;
+		BaronessState replayed = start;
+		for (int i = 0; i < moveCount; i++) {
+			replayed = replayed.apply(moves[i] & 0xFF);
+		}
+		state = replayed;
+		return true;
+	}
+
+	/**
+	 * @return The moves made so far. Only called from a command.
+	 */
+	int[] getMoves() {
+		int[] copy = new int[moveCount];
+		for (int i = 0; i < moveCount; i++) {
+			copy[i] = moves[i] & 0xFF;
+		}
+		return copy;
+	}
+
+	/**
+	 * @return The identifier of the session.
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * @return The seed the game was dealt with.
+	 */
+	public int getSeed() {
+		return seed;
+	}
+}
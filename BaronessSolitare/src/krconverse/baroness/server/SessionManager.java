@@ -0,0 +1,189 @@
+/**
+ * SessionManager.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.server;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * Hosts many independent headless games of Baroness in one process, without
+ * any windows.
+ * <p>
+ * Games are played through commands which return a
+ * {@link CompletableFuture}, so callers never wait on a game which is busy.
+ * Each {@link GameSession} runs its commands one at a time on a small pool of
+ * threads shared by every session, so thousands of sessions can be open at
+ * once with only a handful of threads. Sessions are kept in a
+ * {@link SessionRegistry}, so commands for different games do not contend
+ * for the same lock.
+ */
+public class SessionManager {
+	final SessionRegistry sessions = new SessionRegistry();
+	final AtomicLong nextId = new AtomicLong(1);
+	final ExecutorService pool;
+
+	/**
+	 * Creates a new manager with a thread for each processor.
+	 */
+	public SessionManager() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new manager.
+	 * @param threads The number of threads to run every session's commands on.
+	 */
+	public SessionManager(int threads) {
+		this.pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			final AtomicLong count = new AtomicLong();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Baroness sessions " + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Opens a new session.
+	 * @param seed The seed to deal the game with.
+	 * @return The identifier of the session.
+	 */
+	public long open(int seed) {
+		long id = nextId.getAndIncrement();
+		sessions.add(new GameSession(id, seed, pool));
+		return id;
+	}
+
+	/**
+	 * Closes a session. Commands which were already sent still run.
+	 * @param id The identifier of the session.
+	 * @return Whether the session was open.
+	 */
+	public boolean close(long id) {
+		return sessions.remove(id) != null;
+	}
+
+	/**
+	 * @return The number of open sessions.
+	 */
+	public int size() {
+		return sessions.size();
+	}
+
+	/**
+	 * Makes a move in a session's game.
+	 * @param id The identifier of the session.
+	 * @param move The encoded move to make.
+	 * @return Whether the move followed the rules and was made.
+	 * @see EncodedMove
+	 */
+	public CompletableFuture<Boolean> move(long id, final int move) {
+		final GameSession session = get(id);
+		return CompletableFuture.supplyAsync(new Supplier<Boolean>() {
+			@Override
+			public Boolean get() {
+				return session.move(move);
+			}
+		}, session);
+	}
+
+	/**
+	 * Takes back the last move made in a session's game.
+	 * @param id The identifier of the session.
+	 * @return Whether there was a move to take back.
+	 */
+	public CompletableFuture<Boolean> undo(long id) {
+		final GameSession session = get(id);
+		return CompletableFuture.supplyAsync(new Supplier<Boolean>() {
+			@Override
+			public Boolean get() {
+				return session.undo();
+			}
+		}, session);
+	}
+
+	/**
+	 * Looks at a session's game.
+	 * @param id The identifier of the session.
+	 * @return The current position of the game.
+	 */
+	public CompletableFuture<BaronessState> getState(long id) {
+		final GameSession session = get(id);
+		return CompletableFuture.supplyAsync(new Supplier<BaronessState>() {
+			@Override
+			public BaronessState get() {
+				return session.state;
+			}
+		}, session);
+	}
+
+	/**
+	 * Lists the moves which can be made in a session's game.
+	 * @param id The identifier of the session.
+	 * @return The encoded moves.
+	 */
+	public CompletableFuture<int[]> getAvailableMoves(long id) {
+		final GameSession session = get(id);
+		return CompletableFuture.supplyAsync(new Supplier<int[]>() {
+			@Override
+			public int[] get() {
+				int[] buffer = new int[EncodedMove.MAX_MOVES];
+				int count = session.state.generateMoves(buffer);
+				int[] moves = new int[count];
+				System.arraycopy(buffer, 0, moves, 0, count);
+				return moves;
+			}
+		}, session);
+	}
+
+	/**
+	 * Lists the moves which were made in a session's game, for example to
+	 * write them to a {@link krconverse.baroness.log.MoveLogWriter}.
+	 * @param id The identifier of the session.
+	 * @return The encoded moves, in the order they were made.
+	 */
+	public CompletableFuture<int[]> getHistory(long id) {
+		final GameSession session = get(id);
+		return CompletableFuture.supplyAsync(new Supplier<int[]>() {
+			@Override
+			public int[] get() {
+				return session.getMoves();
+			}
+		}, session);
+	}
+
+	/**
+	 * Stops the threads of the manager. Commands which were already sent
+	 * still run.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * @param id The identifier of a session.
+	 * @return The session.
+	 * @throws IllegalArgumentException If no session with the identifier is
+	 *             open.
+	 */
+	GameSession get(long id) {
+		GameSession session = sessions.get(id);
+		if (session == null) {
+			throw new IllegalArgumentException("No session " + id);
+		}
+		return session;
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * SessionRegistry.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.server;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The open sessions of a {@link SessionManager}.
+ * <p>
+ * Sessions are kept in a {@link ConcurrentHashMap}, which locks each bucket
+ * on its own when sessions are added or removed and looks them up without
+ * any lock, so commands for different sessions never contend for the
+ * registry. Commands for a session are serialized by the session itself, not
+ * by the registry.
+ */
+public class SessionRegistry {
+	final ConcurrentHashMap<Long, GameSession> sessions;
+
+	/**
+	 * Creates a new registry.
+	 */
+	public SessionRegistry() {
+		this.sessions = new ConcurrentHashMap<Long, GameSession>();
+	}
+
+	/**
+	 * Creates a new registry with room for a number of sessions.
+	 * @param expectedSessions The number of sessions expected to be open at
+	 *            once.
+	 */
+	public SessionRegistry(int expectedSessions) {
+		this.sessions = new ConcurrentHashMap<Long, GameSession>(expectedSessions);
+	}
+
+	/**
+	 * Adds a session.
+	 * @param session The session, whose identifier is not already registered.
+	 * @throws IllegalArgumentException If a session with the same identifier
+	 *             is already registered.
+	 */
+	public void add(GameSession session) {
+		if (sessions.putIfAbsent(session.id, session) != null) {
+			throw new IllegalArgumentException("Session " + session.id + " is already registered");
+		}
+	}
+
+	/**
+	 * @param id The identifier of a session.
+	 * @return The session, or null if it is not registered.
+	 */
+	public GameSession get(long id) {
+		return sessions.get(id);
+	}
+
+	/**
+	 * Removes a session.
+	 * @param id The identifier of the session.
+	 * @return The session which was removed, or null if it was not registered.
+	 */
+	public GameSession remove(long id) {
+		return sessions.remove(id);
+	}
+
+	/**
+	 * @return The number of registered sessions.
+	 */
+	public int size() {
+		return sessions.size();
+	}
+}
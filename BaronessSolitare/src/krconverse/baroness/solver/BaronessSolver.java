@@ -0,0 +1,492 @@
+/**
+ * BaronessSolver.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+import krconverse.Baroness;
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * A solver for Baroness, which searches depth first unless another
+ * {@link SearchStrategy} is chosen.
+ * <p>
+ * The solver searches over the same moves as the classes in
+ * {@link krconverse.baroness.move}, in their encoded form, and remembers the
+ * canonical hash (see {@link BaronessState#getCanonicalHash()}) of every
+ * position it has expanded. Whether a position can be won does not depend on
+ * how it was reached, or on which of the interchangeable columns holds which
+ * cards, so a position which is reached a second time has already been
+ * searched and is skipped. When the search runs out of positions the deal
+ * has been proven to be unwinnable.
+ * <p>
+ * Unless it is turned off, the search is pruned without changing its answer:
+ * moves which can never hurt are made without branching (see
+ * {@link #forcedMove(BaronessState)}), when two pairs on different columns
+ * can be played in either order only one of the orders is searched, and
+ * positions which are lost on their face (see {@link LossCertificate}) are
+ * not searched at all.
+ * <p>
+ * A solver can be reused for many deals, but it must only be used by one
+ * thread at a time.
+ */
+public class BaronessSolver {
+	/**
+	 * Identifies the rules the solver plays by, for storing its verdicts.
+	 * Raised whenever verdicts stored before could be wrong.
+	 */
+	public static final int VARIANT = 1;
+
+	static final int[] COLUMN_PAIRS = new int[BaronessState.COLUMNS]; // bits of the pairs which use each column
+
+	static {
+		for (int i = 0; i < BaronessState.COLUMNS; i++) {
+			for (int j = 0; j < BaronessState.COLUMNS; j++) {
+				COLUMN_PAIRS[i] |= 1 << i * BaronessState.COLUMNS + j | 1 << j * BaronessState.COLUMNS + i;
+			}
+		}
+	}
+
+	final long nodeLimit; // most positions to expand, or 0 for no limit
+	long timeLimit; // most nanoseconds to search for, or 0 for no limit
+	long deadline; // when the current search has to stop
+	boolean pruning = true; // whether to skip moves which cannot change the outcome
+	SearchStrategy strategy = SearchStrategy.DEPTH_FIRST; // how to search
+	double weight = 2; // weight of the heuristic in a weighted best-first search
+
+	LongHashSet visited = new LongHashSet(1 << 16); // hashes of the expanded positions
+	int[][] buffers = new int[0][]; // move buffers for each depth
+	int[] path = new int[0]; // moves leading to the current position
+	int[] rankCounts = new int[14]; // cards left of each rank, for finding forced pairs
+	int length; // length of the winning path
+	long nodes; // positions expanded so far
+	boolean stopped; // whether the node limit was reached
+	int bound; // most moves plus estimated moves to search to, or 0 for no bound
+	boolean cutoff; // whether the bound kept any position from being searched
+
+	final SolverStatistics statistics = new SolverStatistics(); // counters of the last search
+	SolverMonitor monitor; // where finished searches are reported, or null
+
+	/**
+	 * Creates a new solver which searches until it has an answer.
+	 */
+	public BaronessSolver() {
+		this(0);
+	}
+
+	/**
+	 * Creates a new solver.
+	 * @param nodeLimit The most positions to expand before giving up, or 0
+	 *            to search until there is an answer.
+	 */
+	public BaronessSolver(long nodeLimit) {
+		this.nodeLimit = nodeLimit;
+	}
+
+	/**
+	 * Limits how long each search may take. A search which runs out of time
+	 * stops with an {@link SolverResult.Outcome#UNKNOWN} outcome.
+	 * @param millis The most milliseconds to search for, or 0 for no limit.
+	 */
+	public void setTimeLimit(long millis) {
+		this.timeLimit = millis * 1000000;
+	}
+
+	/**
+	 * Sets whether moves which cannot change the outcome are pruned. With
+	 * pruning, Kings and pairs whose cards have no other use are played
+	 * without branching, and of two pairs on different columns which are
+	 * played one after the other only one order is searched. Pruning never
+	 * changes whether a deal can be won, only how many positions are
+	 * expanded to find out.
+	 * @param pruning Whether to prune, which is the default.
+	 */
+	public void setPruning(boolean pruning) {
+		this.pruning = pruning;
+	}
+
+	/**
+	 * Sets how the solver searches.
+	 * @param strategy The strategy to search with, which is
+	 *            {@link SearchStrategy#DEPTH_FIRST} by default.
+	 */
+	public void setStrategy(SearchStrategy strategy) {
+		this.strategy = strategy;
+	}
+
+	/**
+	 * Sets how heavily a {@link SearchStrategy#WEIGHTED_BEST_FIRST} search
+	 * weighs the estimated moves left against the moves already made. A win
+	 * found this way is at most this many times longer than the shortest.
+	 * @param weight The weight, which is 2 by default.
+	 */
+	public void setWeight(double weight) {
+		this.weight = weight;
+	}
+
+	/**
+	 * Reports every finished search to a monitor.
+	 * @param monitor The monitor to report to, or null to stop reporting.
+	 */
+	public void setMonitor(SolverMonitor monitor) {
+		this.monitor = monitor;
+	}
+
+	/**
+	 * Returns the counters of the last search. They are reset at the start of
+	 * every search, so take a {@link SolverStatistics#copy()} to keep them.
+	 * @return The counters of the last search.
+	 */
+	public SolverStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Solves a running game from its current position.
+	 * @param game The game to solve.
+	 * @return The result of the search.
+	 */
+	public SolverResult solve(Baroness game) {
+		return solve(BaronessState.fromGame(game));
+	}
+
+	/**
+	 * Solves a position.
+	 * @param start The position to solve.
+	 * @return The result of the search.
+	 */
+	public SolverResult solve(BaronessState start) {
+		visited.clear();
+		nodes = 0;
+		length = 0;
+		stopped = false;
+		statistics.reset();
+		long started = System.nanoTime();
+		deadline = started + timeLimit;
+
+		boolean won;
+		switch (strategy) {
+		case ITERATIVE_DEEPENING:
+			won = deepen(start);
+			break;
+		case BEST_FIRST:
+			won = bestFirst(start, 1);
+			break;
+		case WEIGHTED_BEST_FIRST:
+			won = bestFirst(start, weight);
+			break;
+		default:
+			won = search(start, 0, 0);
+		}
+
+		SolverResult.Outcome outcome;
+		if (won) {
+			outcome = SolverResult.Outcome.WON;
+		} else if (stopped) {
+			outcome = SolverResult.Outcome.UNKNOWN;
+		} else {
+			outcome = SolverResult.Outcome.LOST;
+		}
+
+		statistics.wallTime = System.nanoTime() - started;
+		if (monitor != null) {
+			monitor.record(statistics, outcome);
+		}
+
+		int[] moves = outcome == SolverResult.Outcome.WON ? Arrays.copyOf(path, length) : new int[0];
+		LossCertificate certificate = outcome == SolverResult.Outcome.LOST ? LossCertificate.find(start) : null;
+		return new SolverResult(outcome, moves, nodes, visited.size(), certificate);
+	}
+
+	/**
+	 * Searches a position and everything reachable from it.
+	 * @param state The position to search.
+	 * @param depth The number of moves made to reach the position.
+	 * @param sleep The pairs which need not be played from the position,
+	 *            because playing them first was already searched (see
+	 *            {@link #pairBit(int)}).
+	 * @return Whether a win was found.
+	 */
+	boolean search(BaronessState state, int depth, int sleep) {
+		if (pruning) {
+			// make the moves which never hurt without branching on them
+			int forced;
+			while ((forced = forcedMove(state)) >= 0) {
+				buffer(depth);
+				path[depth++] = forced;
+				state = state.apply(forced);
+				sleep &= ~touchedPairs(forced);
+			}
+		}
+
+		// the moves made without branching may already go past the bound
+		if (bound > 0 && depth + SolverHeuristic.lowerBound(state) > bound) {
+			cutoff = true;
+			return false;
+		}
+		if (state.hasWon()) {
+			length = depth;
+			return true;
+		}
+		if (pruning && LossCertificate.lockedCards(state) != 0) {
+			// lost, however it is played from here
+			statistics.deadEnds++;
+			return false;
+		}
+		long key = state.getCanonicalHash();
+		if (bound > 0) {
+			// a position reached with fewer moves has more of the bound left
+			key += depth * 0x9E3779B97F4A7C15L;
+		}
+		if (!visited.add(key)) {
+			// already searched, and it was not won
+			statistics.transpositionHits++;
+			return false;
+		}
+		if (nodeLimit > 0 && nodes >= nodeLimit
+				|| timeLimit > 0 && (nodes & 1023) == 0 && System.nanoTime() - deadline > 0) {
+			stopped = true;
+			return false;
+		}
+		nodes++;
+		statistics.expanded(depth);
+
+		int[] moves = buffer(depth);
+		int count = state.generateMoves(moves);
+		long[] generated = statistics.generated;
+		for (int i = 0; i < count; i++) {
+			generated[EncodedMove.type(moves[i])]++;
+		}
+
+		int explored = 0; // pairs already searched from this position
+		for (int i = 0; i < count; i++) {
+			int move = moves[i];
+			int bit = pruning ? pairBit(move) : 0;
+			if ((sleep & bit) != 0) {
+				// an independent move was searched first, then this one
+				continue;
+			}
+			path[depth] = move;
+			if (search(state.apply(move), depth + 1, (sleep | explored) & ~touchedPairs(move))) {
+				return true;
+			}
+			if (stopped) {
+				return false;
+			}
+			explored |= bit;
+		}
+		return false;
+	}
+
+	/**
+	 * Searches depth first with a bound on the moves made plus the estimated
+	 * moves left, raising the bound until a win is found or nothing is cut
+	 * off by the bound any more.
+	 * @param start The position to search.
+	 * @return Whether a win was found.
+	 */
+	boolean deepen(BaronessState start) {
+		bound = Math.max(1, SolverHeuristic.lowerBound(start));
+		try {
+			while (true) {
+				visited.clear();
+				cutoff = false;
+				if (search(start, 0, 0)) {
+					return true;
+				}
+				if (stopped || !cutoff) {
+					return false;
+				}
+				bound++;
+			}
+		} finally {
+			bound = 0;
+		}
+	}
+
+	/**
+	 * Searches best first, always expanding the position with the lowest
+	 * moves made plus weighted estimate of the moves left.
+	 * @param start The position to search.
+	 * @param weight The weight of the estimated moves left.
+	 * @return Whether a win was found.
+	 */
+	boolean bestFirst(BaronessState start, double weight) {
+		PriorityQueue<Node> open = new PriorityQueue<Node>();
+		open.add(new Node(start, null, -1, 0, weight));
+		int[] moves = buffer(0);
+		while (!open.isEmpty()) {
+			Node node = open.poll();
+			if (node.state.hasWon()) {
+				length = node.depth;
+				buffer(length);
+				for (Node step = node; step.parent != null; step = step.parent) {
+					path[step.depth - 1] = step.move;
+				}
+				return true;
+			}
+			if (pruning && LossCertificate.lockedCards(node.state) != 0) {
+				statistics.deadEnds++;
+				continue;
+			}
+			if (!visited.add(node.state.getCanonicalHash())) {
+				// already expanded with at most as many moves
+				statistics.transpositionHits++;
+				continue;
+			}
+			if (nodeLimit > 0 && nodes >= nodeLimit
+					|| timeLimit > 0 && (nodes & 1023) == 0 && System.nanoTime() - deadline > 0) {
+				stopped = true;
+				return false;
+			}
+			nodes++;
+			statistics.expanded(node.depth);
+
+			int count = node.state.generateMoves(moves);
+			for (int i = 0; i < count; i++) {
+				statistics.generated[EncodedMove.type(moves[i])]++;
+				Node child = new Node(node.state.apply(moves[i]), node, moves[i], node.depth + 1, weight);
+				if (pruning) {
+					// the moves which never hurt are made straight away
+					int forced;
+					while ((forced = forcedMove(child.state)) >= 0) {
+						child = new Node(child.state.apply(forced), child, forced, child.depth + 1, weight);
+					}
+				}
+				open.add(child);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A position waiting to be expanded by a best-first search, which
+	 * remembers how it was reached.
+	 */
+	static class Node implements Comparable<Node> {
+		final BaronessState state;
+		final Node parent; // position the move was made from, or null
+		final int move; // encoded move made from the parent
+		final int depth; // moves made to reach the position
+		final double cost; // moves made plus weighted estimate of the moves left
+
+		Node(BaronessState state, Node parent, int move, int depth, double weight) {
+			this.state = state;
+			this.parent = parent;
+			this.move = move;
+			this.depth = depth;
+			this.cost = depth + weight * SolverHeuristic.lowerBound(state);
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Comparable#compareTo(java.lang.Object)
+		 */
+		@Override
+		public int compareTo(Node other) {
+			if (cost != other.cost) {
+				return cost < other.cost ? -1 : 1;
+			}
+			// between equally good positions, prefer the one closer to a win
+			return other.depth - depth;
+		}
+	}
+
+	/**
+	 * Finds a move which can be made without losing any chance of winning.
+	 * <p>
+	 * Once the deck is empty, a King on top of a column can only ever be
+	 * played, and playing it only uncovers the cards beneath it, so it is
+	 * always safe to play. The same holds for a pair on top of two columns
+	 * when no other cards of either rank are left, since the two cards can
+	 * only ever be played with each other.
+	 * <p>
+	 * While cards are left to deal, nothing is forced: a card only moves to an
+	 * empty column from a column holding more than one card, so a King or a
+	 * pair can be kept as a base for a dealt card which is moved away later.
+	 * @param state The position to look at.
+	 * @return The encoded move, or -1 if there is none.
+	 */
+	int forcedMove(BaronessState state) {
+		if (state.getDeckCount() > 0) {
+			return -1;
+		}
+		int candidates = 0; // columns with a possible pair on top
+		for (int i = 0; i < BaronessState.COLUMNS; i++) {
+			int rank = state.getTopRank(i);
+			if (rank == 13) {
+				return EncodedMove.encode(EncodedMove.KING, i, 0);
+			}
+			for (int j = 0; j < i; j++) {
+				if (rank != 0 && state.getTopRank(j) + rank == 13) {
+					candidates |= 1 << i | 1 << j;
+				}
+			}
+		}
+		if (candidates == 0) {
+			return -1;
+		}
+
+		state.countRanks(rankCounts);
+		for (int i = 0; i < BaronessState.COLUMNS - 1; i++) {
+			if ((candidates & 1 << i) == 0) {
+				continue;
+			}
+			int rank = state.getTopRank(i);
+			for (int j = i + 1; j < BaronessState.COLUMNS; j++) {
+				if (state.getTopRank(j) + rank == 13 && rankCounts[rank] == 1 && rankCounts[13 - rank] == 1) {
+					return EncodedMove.encode(EncodedMove.PAIR, i, j);
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param move An encoded move.
+	 * @return The bit of the move in a set of sleeping pairs, or 0 if the
+	 *         move is not a pair.
+	 */
+	static int pairBit(int move) {
+		if (EncodedMove.type(move) != EncodedMove.PAIR) {
+			return 0;
+		}
+		return 1 << EncodedMove.source(move) * BaronessState.COLUMNS + EncodedMove.target(move);
+	}
+
+	/**
+	 * @param move An encoded move.
+	 * @return The bits of every pair which shares a column with the move,
+	 *         and so no longer plays the same cards once the move is made.
+	 */
+	static int touchedPairs(int move) {
+		switch (EncodedMove.type(move)) {
+		case EncodedMove.KING:
+			return COLUMN_PAIRS[EncodedMove.source(move)];
+		case EncodedMove.DEAL:
+			return -1;
+		default:
+			return COLUMN_PAIRS[EncodedMove.source(move)] | COLUMN_PAIRS[EncodedMove.target(move)];
+		}
+	}
+
+	/**
+	 * @param depth The depth of the search.
+	 * @return The move buffer for the depth, making room for it if needed.
+	 */
+	int[] buffer(int depth) {
+		if (depth >= buffers.length) {
+			int length = Math.max(64, buffers.length * 2);
+			buffers = Arrays.copyOf(buffers, length);
+			path = Arrays.copyOf(path, length);
+		}
+		if (buffers[depth] == null) {
+			buffers[depth] = new int[EncodedMove.MAX_MOVES];
+		}
+		return buffers[depth];
+	}
+}
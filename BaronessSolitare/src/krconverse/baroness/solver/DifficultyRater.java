@@ -0,0 +1,266 @@
+/**
+ * DifficultyRater.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * Rates how hard the deal of a seed is to win.
+ * <p>
+ * A rating is made of three measurements: the number of positions the
+ * {@link BaronessSolver} expands before it finds its first win, the number of
+ * distinct winning lines, counted up to {@link #LINE_LIMIT}, and the fewest
+ * moves to empty columns that any of those lines, or the solver's own win,
+ * needs. See
+ * {@link DifficultyRating} for how they are weighed.
+ * <p>
+ * The game is played in rounds between deals, and a line is told apart by
+ * the positions a player deals from, not by the order the moves of a round
+ * are made in; otherwise nearly every deal has millions of lines which only
+ * differ in the order of the same pairs. Each round is walked once: every
+ * position reachable from its start without dealing is visited, and the
+ * lines of the rounds its deals lead to are added up. Easy deals reach the
+ * limit of lines quickly, and the walk stops there; hard deals have few lines
+ * and are walked in full, unless they reach {@link #POSITION_LIMIT} first.
+ * Either way the rating tells whether it only covers part of the game.
+ */
+public class DifficultyRater {
+	/** The number of winning lines counted before stopping. */
+	public static final int LINE_LIMIT = 10000;
+	/** The number of positions walked while counting winning lines. */
+	public static final int POSITION_LIMIT = 200000;
+
+	/** What {@link #round(BaronessState)} returns when no win was found. */
+	static final long NO_WIN = 0xFF;
+	static final int DEAL = EncodedMove.encode(EncodedMove.DEAL, 0, 0);
+
+	final BaronessSolver solver;
+	final HashMap<Long, Long> rounds = new HashMap<Long, Long>(); // result of each round, by its start
+	final int[] moves = new int[EncodedMove.MAX_MOVES];
+	int positionLimit = POSITION_LIMIT;
+	int positions; // positions walked so far
+	boolean exhausted; // whether the last walk stopped early
+
+	/**
+	 * Creates a new rater.
+	 * @param nodeLimit The most positions for the solver to expand for each
+	 *            seed, or 0 for no limit.
+	 */
+	public DifficultyRater(long nodeLimit) {
+		this.solver = new BaronessSolver(nodeLimit);
+	}
+
+	/**
+	 * Sets how many positions to walk while counting winning lines.
+	 * @param positionLimit The most positions to walk for each seed.
+	 */
+	public void setPositionLimit(int positionLimit) {
+		this.positionLimit = positionLimit;
+	}
+
+	/**
+	 * Rates the deal of a seed.
+	 * @param seed The seed.
+	 * @return The rating of the deal.
+	 */
+	public DifficultyRating rate(int seed) {
+		return rate(seed, BaronessState.fromSeed(seed));
+	}
+
+	/**
+	 * Rates a deal.
+	 * @param seed The seed to file the rating under.
+	 * @param start The starting position of the deal.
+	 * @return The rating of the deal.
+	 */
+	public DifficultyRating rate(int seed, BaronessState start) {
+		SolverResult result = solver.solve(start);
+		if (!result.isWon()) {
+			return new DifficultyRating(seed, result.getOutcome(), result.getNodes(), 0, false, 0);
+		}
+
+		positions = 0;
+		exhausted = false;
+		long walked;
+		try {
+			walked = round(start);
+		} finally {
+			rounds.clear();
+		}
+
+		// the solver's own win bounds the moves to empty columns needed, even
+		// when the walk stopped before finding a line which needs fewer
+		int emptyColumnMoves = 0;
+		for (int move : result.getMoves()) {
+			if (EncodedMove.type(move) == EncodedMove.EMPTY_COLUMN) {
+				emptyColumnMoves++;
+			}
+		}
+		int lines = 0;
+		if (walked != NO_WIN) {
+			lines = (int) (walked >>> 8);
+			emptyColumnMoves = Math.min(emptyColumnMoves, (int) walked & 0xFF);
+		}
+		return new DifficultyRating(seed, result.getOutcome(), result.getNodes(), lines,
+				exhausted || lines == LINE_LIMIT, emptyColumnMoves);
+	}
+
+	/**
+	 * Walks a round, from a position right after a deal (or the start of the
+	 * game) to every position it can be played out to.
+	 * <p>
+	 * The positions are visited in order of the moves to empty columns needed
+	 * to reach them, so each is expanded once, from the path with the fewest
+	 * of them. The walk of a round stops once it has found enough lines.
+	 * @param start The first position of the round.
+	 * @return The number of winning lines shifted left by 8 bits, combined
+	 *         with the fewest moves to empty columns any of them needs, or
+	 *         {@link #NO_WIN} if there are no winning lines.
+	 */
+	long round(BaronessState start) {
+		Long key = start.getHash();
+		Long known = rounds.get(key);
+		if (known != null) {
+			return known;
+		}
+
+		long lines = 0;
+		int fewest = (int) NO_WIN;
+		HashMap<Long, Integer> reached = new HashMap<Long, Integer>(); // fewest moves to empty columns to each position
+		ArrayDeque<BaronessState> queue = new ArrayDeque<BaronessState>(); // positions to visit, nearest first
+		ArrayDeque<Integer> distances = new ArrayDeque<Integer>();
+		queue.add(start);
+		distances.add(0);
+		reached.put(key, 0);
+		while (!queue.isEmpty() && lines < LINE_LIMIT) {
+			BaronessState state = queue.pollFirst();
+			int distance = distances.pollFirst();
+			if (reached.get(state.getHash()) < distance) {
+				continue; // reached by fewer moves to empty columns since it was queued
+			}
+			if (++positions > positionLimit) {
+				exhausted = true;
+				break;
+			}
+
+			if (state.hasWon()) {
+				lines++;
+				fewest = Math.min(fewest, distance);
+				continue;
+			}
+			if (LossCertificate.lockedCards(state) != 0) {
+				continue; // a dead end, whatever is played from it
+			}
+
+			int count = state.generateMoves(moves);
+			boolean canDeal = count > 0 && moves[count - 1] == DEAL;
+			int[] children = new int[canDeal ? count - 1 : count];
+			System.arraycopy(moves, 0, children, 0, children.length);
+
+			// the player can end the round here by dealing
+			if (canDeal) {
+				long next = round(state.apply(DEAL));
+				if (next != NO_WIN) {
+					lines = Math.min(LINE_LIMIT, lines + (next >>> 8));
+					fewest = Math.min(fewest, distance + (int) (next & 0xFF));
+				}
+			}
+
+			for (int move : children) {
+				BaronessState child = state.apply(move);
+				boolean empty = EncodedMove.type(move) == EncodedMove.EMPTY_COLUMN;
+				int childDistance = empty ? distance + 1 : distance;
+				Integer previous = reached.get(child.getHash());
+				if (previous == null || previous > childDistance) {
+					reached.put(child.getHash(), childDistance);
+					if (empty) {
+						queue.addLast(child);
+						distances.addLast(childDistance);
+					} else {
+						queue.addFirst(child);
+						distances.addFirst(childDistance);
+					}
+				}
+			}
+		}
+
+		long result = lines == 0 ? NO_WIN : lines << 8 | Math.min(fewest, (int) NO_WIN - 1);
+		rounds.put(key, result);
+		return result;
+	}
+
+	/**
+	 * Rates a range of seeds and stores the ratings in a {@link DifficultyTable}.
+	 * <p>
+	 * Usage: {@code DifficultyRater firstSeed lastSeed tableFile [nodeLimit [threads]]}.
+	 * @param args The command line arguments.
+	 * @throws IOException If the table could not be written.
+	 * @throws InterruptedException If the rating was interrupted.
+	 * @throws ExecutionException If a seed could not be rated.
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+		if (args.length < 3) {
+			System.err.println("Usage: DifficultyRater firstSeed lastSeed tableFile [nodeLimit [threads]]");
+			return;
+		}
+		int firstSeed = Integer.parseInt(args[0]);
+		int lastSeed = Integer.parseInt(args[1]);
+		final long nodeLimit = args.length > 3 ? Long.parseLong(args[3]) : 0;
+		int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+		// one rater for each thread, since each holds its own solver and walk
+		final ThreadLocal<DifficultyRater> raters = new ThreadLocal<DifficultyRater>() {
+			@Override
+			protected DifficultyRater initialValue() {
+				return new DifficultyRater(nodeLimit);
+			}
+		};
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<DifficultyRating>> futures = new ArrayList<Future<DifficultyRating>>();
+		for (long seed = firstSeed; seed <= lastSeed; seed++) {
+			final int next = (int) seed;
+			futures.add(pool.submit(new Callable<DifficultyRating>() {
+				@Override
+				public DifficultyRating call() {
+					return raters.get().rate(next);
+				}
+			}));
+		}
+
+		int[] levels = new int[DifficultyRating.Level.values().length];
+		List<DifficultyRating> ratings = new ArrayList<DifficultyRating>(futures.size());
+		try {
+			for (Future<DifficultyRating> future : futures) {
+				DifficultyRating rating = future.get();
+				ratings.add(rating);
+				levels[rating.getLevel().ordinal()]++;
+			}
+		} finally {
+			pool.shutdown();
+		}
+		DifficultyTable.write(new File(args[2]), ratings);
+
+		StringBuilder totals = new StringBuilder();
+		for (DifficultyRating.Level level : DifficultyRating.Level.values()) {
+			totals.append(totals.length() == 0 ? "" : " ").append(level.name().toLowerCase()).append('=')
+					.append(levels[level.ordinal()]);
+		}
+		System.err.println(totals);
+	}
+}
@@ -0,0 +1,145 @@
+/**
+ * DifficultyRating.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+/**
+ * How hard a deal of Baroness is to win, as measured by a
+ * {@link DifficultyRater}.
+ */
+public class DifficultyRating {
+	/**
+	 * The pools deals are sorted into.
+	 */
+	public enum Level {
+		/** Winnable, and forgiving. */
+		EASY,
+		/** Winnable, with a few traps. */
+		MEDIUM,
+		/** Winnable, but only along a few lines. */
+		HARD,
+		/** Proven to be lost. */
+		UNWINNABLE,
+		/** The solver gave up before finding out. */
+		UNKNOWN
+	}
+
+	// the winnable deals of the first few hundred seeds split roughly into thirds
+	/** Winnable deals scoring below this are easy. */
+	public static final double EASY_BELOW = 0.75;
+	/** Winnable deals scoring below this, but not easy, are of medium difficulty. */
+	public static final double MEDIUM_BELOW = 1.75;
+
+	final int seed;
+	final SolverResult.Outcome outcome;
+	final long nodes; // positions expanded before the first win
+	final int lines; // winning lines, up to the rater's limit
+	final boolean partial; // whether there may be more lines than were counted
+	final int emptyColumnMoves; // fewest moves to empty columns a known win needs
+
+	/**
+	 * Creates a new rating.
+	 * @param seed The seed of the deal.
+	 * @param outcome What the solver found out about the deal.
+	 * @param nodes The number of positions the solver expanded.
+	 * @param lines The number of winning lines which were counted.
+	 * @param partial Whether the count of lines is only a lower bound.
+	 * @param emptyColumnMoves The fewest moves to empty columns that one of
+	 *            the known wins needs.
+	 */
+	public DifficultyRating(int seed, SolverResult.Outcome outcome, long nodes, int lines, boolean partial,
+			int emptyColumnMoves) {
+		this.seed = seed;
+		this.outcome = outcome;
+		this.nodes = nodes;
+		this.lines = lines;
+		this.partial = partial;
+		this.emptyColumnMoves = emptyColumnMoves;
+	}
+
+	/**
+	 * Weighs the measurements into one score: each tenfold increase of the
+	 * solver's effort adds a point, each tenfold increase of the winning lines
+	 * takes half a point away, and each move to an empty column adds half a
+	 * point.
+	 * @return The score, higher for harder deals, or NaN if the deal is not
+	 *         known to be winnable.
+	 */
+	public double getScore() {
+		if (outcome != SolverResult.Outcome.WON) {
+			return Double.NaN;
+		}
+		return Math.log10(Math.max(1, nodes)) - 0.5 * Math.log10(Math.max(1, lines)) + 0.5 * emptyColumnMoves;
+	}
+
+	/**
+	 * @return The pool the deal belongs in.
+	 */
+	public Level getLevel() {
+		switch (outcome) {
+		case LOST:
+			return Level.UNWINNABLE;
+		case UNKNOWN:
+			return Level.UNKNOWN;
+		default:
+			double score = getScore();
+			return score < EASY_BELOW ? Level.EASY : score < MEDIUM_BELOW ? Level.MEDIUM : Level.HARD;
+		}
+	}
+
+	/**
+	 * @return The seed of the deal.
+	 */
+	public int getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return What the solver found out about the deal.
+	 */
+	public SolverResult.Outcome getOutcome() {
+		return outcome;
+	}
+
+	/**
+	 * @return The number of positions the solver expanded before it found
+	 *         its first win, or gave up.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return The number of distinct winning lines which were counted.
+	 */
+	public int getLines() {
+		return lines;
+	}
+
+	/**
+	 * @return Whether there may be more winning lines than were counted.
+	 */
+	public boolean isPartial() {
+		return partial;
+	}
+
+	/**
+	 * @return The fewest moves to empty columns that one of the known wins
+	 *         needs, among the counted lines and the solver's own win, so the
+	 *         deal can be won with no more than these.
+	 */
+	public int getEmptyColumnMoves() {
+		return emptyColumnMoves;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return seed + ": " + getLevel() + " (nodes=" + nodes + " lines=" + lines + (partial ? "+" : "")
+				+ " emptyColumnMoves=" + emptyColumnMoves + ")";
+	}
+}
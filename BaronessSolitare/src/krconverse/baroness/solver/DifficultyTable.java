@@ -0,0 +1,218 @@
+/**
+ * DifficultyTable.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A file of {@link DifficultyRating}s, stored by column so that pools of deals
+ * can be picked out without reading every rating.
+ * <p>
+ * After a header of a magic number, a version and the number of ratings, the
+ * file holds every rating's seed, then every outcome, every level, every
+ * score, every node count, every line count, every partial flag and finally
+ * every count of moves to empty columns. Looking for the seeds of a level
+ * only reads the level column and the seeds it picks, straight from the
+ * mapped file.
+ */
+public class DifficultyTable implements Closeable {
+	static final int MAGIC = 0x42524454; // "BRDT"
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 12;
+	static final int ROW_SIZE = 24; // bytes of every column for one rating
+
+	final RandomAccessFile file;
+	final MappedByteBuffer buffer;
+	final int size; // number of ratings
+
+	// offsets of the columns in the file
+	final int seeds;
+	final int outcomes;
+	final int levels;
+	final int scores;
+	final int nodes;
+	final int lines;
+	final int partial;
+	final int emptyColumnMoves;
+
+	/**
+	 * Opens a table which was written before.
+	 * @param path The file the table is stored in.
+	 * @throws IOException If the file could not be read or is not a table.
+	 */
+	public DifficultyTable(File path) throws IOException {
+		file = new RandomAccessFile(path, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			if (channel.size() < HEADER_SIZE) {
+				throw new IOException(path + " is not a Baroness difficulty table");
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+				throw new IOException(path + " is not a Baroness difficulty table");
+			}
+			size = buffer.getInt(8);
+			if (channel.size() != HEADER_SIZE + (long) size * ROW_SIZE) {
+				throw new IOException(path + " is truncated");
+			}
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+
+		seeds = HEADER_SIZE;
+		outcomes = seeds + 4 * size;
+		levels = outcomes + size;
+		scores = levels + size;
+		nodes = scores + 4 * size;
+		lines = nodes + 8 * size;
+		partial = lines + 4 * size;
+		emptyColumnMoves = partial + size;
+	}
+
+	/**
+	 * Writes a table.
+	 * @param path The file to write the table to, which is replaced.
+	 * @param ratings The ratings to store, in the order to store them.
+	 * @throws IOException If the table could not be written.
+	 */
+	public static void write(File path, List<DifficultyRating> ratings) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(ratings.size());
+			for (DifficultyRating rating : ratings) {
+				out.writeInt(rating.seed);
+			}
+			for (DifficultyRating rating : ratings) {
+				out.writeByte(rating.outcome.ordinal());
+			}
+			for (DifficultyRating rating : ratings) {
+				out.writeByte(rating.getLevel().ordinal());
+			}
+			for (DifficultyRating rating : ratings) {
+				out.writeFloat((float) rating.getScore());
+			}
+			for (DifficultyRating rating : ratings) {
+				out.writeLong(rating.nodes);
+			}
+			for (DifficultyRating rating : ratings) {
+				out.writeInt(rating.lines);
+			}
+			for (DifficultyRating rating : ratings) {
+				out.writeByte(rating.partial ? 1 : 0);
+			}
+			for (DifficultyRating rating : ratings) {
+				out.writeByte(rating.emptyColumnMoves);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * @return The number of ratings in the table.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param index The index of a rating.
+	 * @return The seed of the rated deal.
+	 */
+	public int getSeed(int index) {
+		return buffer.getInt(seeds + 4 * index);
+	}
+
+	/**
+	 * @param index The index of a rating.
+	 * @return The pool the deal was put in when it was rated.
+	 */
+	public DifficultyRating.Level getLevel(int index) {
+		return DifficultyRating.Level.values()[buffer.get(levels + index)];
+	}
+
+	/**
+	 * @param index The index of a rating.
+	 * @return The score of the deal, or NaN if it is not known to be
+	 *         winnable.
+	 */
+	public float getScore(int index) {
+		return buffer.getFloat(scores + 4 * index);
+	}
+
+	/**
+	 * Reads a whole rating.
+	 * @param index The index of the rating.
+	 * @return The rating.
+	 */
+	public DifficultyRating getRating(int index) {
+		return new DifficultyRating(getSeed(index), SolverResult.Outcome.values()[buffer.get(outcomes + index)],
+				buffer.getLong(nodes + 8 * index), buffer.getInt(lines + 4 * index),
+				buffer.get(partial + index) != 0, buffer.get(emptyColumnMoves + index));
+	}
+
+	/**
+	 * Picks out the deals of a pool.
+	 * @param level The pool.
+	 * @return The seeds of the deals, in the order they were stored.
+	 */
+	public int[] getSeeds(DifficultyRating.Level level) {
+		int[] found = new int[64];
+		int count = 0;
+		byte wanted = (byte) level.ordinal();
+		for (int i = 0; i < size; i++) {
+			if (buffer.get(levels + i) == wanted) {
+				if (count == found.length) {
+					found = Arrays.copyOf(found, count * 2);
+				}
+				found[count++] = getSeed(i);
+			}
+		}
+		return Arrays.copyOf(found, count);
+	}
+
+	/**
+	 * Picks out the deals with a score in a range.
+	 * @param lowest The lowest score to pick.
+	 * @param highest The highest score to pick.
+	 * @return The seeds of the deals, in the order they were stored.
+	 */
+	public int[] getSeeds(float lowest, float highest) {
+		int[] found = new int[64];
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			float score = buffer.getFloat(scores + 4 * i);
+			if (score >= lowest && score <= highest) {
+				if (count == found.length) {
+					found = Arrays.copyOf(found, count * 2);
+				}
+				found[count++] = getSeed(i);
+			}
+		}
+		return Arrays.copyOf(found, count);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		file.close();
+	}
+}
@@ -0,0 +1,125 @@
+/**
+ * LongHashSet.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing set of primitive longs, used to remember the hashes of
+ * positions which have already been searched without boxing them.
+ * <p>
+ * The value 0 marks a free slot, so it is stored separately.
+ */
+public class LongHashSet {
+	long[] slots;
+	int size;
+	boolean containsZero;
+
+	/**
+	 * Creates a new set.
+	 * @param capacity The number of values to make room for up front.
+	 */
+	public LongHashSet(int capacity) {
+		int length = 16;
+		while (length < capacity * 2) {
+			length <<= 1;
+		}
+		slots = new long[length];
+	}
+
+	/**
+	 * Adds a value to the set.
+	 * @param value The value to add.
+	 * @return Whether the value was added, or false if it was already there.
+	 */
+	public boolean add(long value) {
+		if (value == 0) {
+			if (containsZero) {
+				return false;
+			}
+			containsZero = true;
+			size++;
+			return true;
+		}
+
+		int mask = slots.length - 1;
+		int index = mix(value) & mask;
+		while (slots[index] != 0) {
+			if (slots[index] == value) {
+				return false;
+			}
+			index = (index + 1) & mask;
+		}
+		slots[index] = value;
+		if (++size * 2 > slots.length) {
+			grow();
+		}
+		return true;
+	}
+
+	/**
+	 * @param value The value to look for.
+	 * @return Whether the value is in the set.
+	 */
+	public boolean contains(long value) {
+		if (value == 0) {
+			return containsZero;
+		}
+
+		int mask = slots.length - 1;
+		int index = mix(value) & mask;
+		while (slots[index] != 0) {
+			if (slots[index] == value) {
+				return true;
+			}
+			index = (index + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * @return The number of values in the set.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes every value from the set, keeping its capacity.
+	 */
+	public void clear() {
+		Arrays.fill(slots, 0);
+		size = 0;
+		containsZero = false;
+	}
+
+	/**
+	 * Doubles the number of slots.
+	 */
+	void grow() {
+		long[] old = slots;
+		slots = new long[old.length * 2];
+		int mask = slots.length - 1;
+		for (long value : old) {
+			if (value != 0) {
+				int index = mix(value) & mask;
+				while (slots[index] != 0) {
+					index = (index + 1) & mask;
+				}
+				slots[index] = value;
+			}
+		}
+	}
+
+	/**
+	 * @param value A value to find a slot for.
+	 * @return The bits of the value spread out over an int.
+	 */
+	static int mix(long value) {
+		value *= 0x9E3779B97F4A7C15L;
+		return (int) (value ^ value >>> 32);
+	}
+}
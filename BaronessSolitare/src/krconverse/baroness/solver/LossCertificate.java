@@ -0,0 +1,220 @@
+/**
+ * LossCertificate.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * A compact proof that a position of Baroness can never be won, which can be
+ * checked against the position without searching.
+ * <p>
+ * A position is lost when it has a set of locked cards in the columns: every
+ * card which could be paired with a locked card is further down a column,
+ * beneath a locked card. None of the locked cards can be paired before
+ * another one has left its column, so the only way to free them is to move
+ * one to an empty column. If every column holds a locked card, none of the
+ * columns can ever be emptied, dealing only adds cards on top, and so the
+ * locked cards stay in play for good. The simplest case is a card which
+ * covers all of its remaining partners in its own column.
+ */
+public class LossCertificate {
+	/**
+	 * Why a position is lost.
+	 */
+	public enum Reason {
+		/** No move can be made and cards are left. */
+		NO_MOVES,
+		/** Every column holds a card which can never be played. */
+		LOCKED_COLUMNS
+	}
+
+	static final long[] PARTNERS = new long[BaronessState.CARDS]; // bits of the cards each card can be paired with
+
+	static {
+		for (int card = 0; card < BaronessState.CARDS; card++) {
+			int rank = BaronessState.rank((byte) card);
+			for (int other = 0; other < BaronessState.CARDS; other++) {
+				if (rank != 13 && BaronessState.rank((byte) other) + rank == 13) {
+					PARTNERS[card] |= 1L << other;
+				}
+			}
+		}
+	}
+
+	final Reason reason;
+	final long cards; // bits of the locked cards, by their encoding
+
+	/**
+	 * Creates a new certificate.
+	 * @param reason Why the position is lost.
+	 * @param cards The bits of the locked cards, by their encoding, or 0.
+	 */
+	LossCertificate(Reason reason, long cards) {
+		this.reason = reason;
+		this.cards = cards;
+	}
+
+	/**
+	 * Looks for a proof that a position is lost, without searching.
+	 * @param state The position to look at.
+	 * @return The proof, or null if none was found; the position may still
+	 *         be lost.
+	 */
+	public static LossCertificate find(BaronessState state) {
+		if (state.hasWon()) {
+			return null;
+		}
+		long locked = lockedCards(state);
+		if (locked != 0) {
+			return new LossCertificate(Reason.LOCKED_COLUMNS, locked);
+		}
+		if (state.generateMoves(new int[EncodedMove.MAX_MOVES]) == 0) {
+			return new LossCertificate(Reason.NO_MOVES, 0);
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the largest set of locked cards, if it leaves no column free.
+	 * <p>
+	 * Starting with every card in the columns except the Kings, cards are
+	 * dropped from the set until each one left has all of its partners beneath
+	 * a card of the set.
+	 * @param state The position to look at.
+	 * @return The bits of the locked cards, or 0 if some column holds none.
+	 */
+	static long lockedCards(BaronessState state) {
+		long inPlay = 0; // cards in the deck or a column
+		long locked = 0; // candidates for the locked set
+		for (int i = 0; i < BaronessState.COLUMNS; i++) {
+			int height = state.getColumnCount(i);
+			if (height == 0) {
+				return 0;
+			}
+			for (int j = 0; j < height; j++) {
+				byte card = state.getCard(i, j);
+				inPlay |= 1L << card;
+				if (BaronessState.rank(card) != 13) {
+					locked |= 1L << card;
+				}
+			}
+		}
+		for (int i = 0; i < state.getDeckCount(); i++) {
+			inPlay |= 1L << state.getDeckCard(i);
+		}
+
+		while (true) {
+			// the cards beneath the topmost locked card of each column
+			long covered = 0;
+			for (int i = 0; i < BaronessState.COLUMNS; i++) {
+				boolean below = false;
+				for (int j = state.getColumnCount(i) - 1; j >= 0; j--) {
+					byte card = state.getCard(i, j);
+					if (below) {
+						covered |= 1L << card;
+					} else if ((locked & 1L << card) != 0) {
+						below = true;
+					}
+				}
+				if (!below) {
+					return 0;
+				}
+			}
+
+			long next = locked;
+			for (long rest = locked; rest != 0; rest &= rest - 1) {
+				int card = Long.numberOfTrailingZeros(rest);
+				if ((PARTNERS[card] & inPlay & ~covered) != 0) {
+					next &= ~(1L << card);
+				}
+			}
+			if (next == locked) {
+				return locked;
+			}
+			locked = next;
+		}
+	}
+
+	/**
+	 * Checks the certificate against a position.
+	 * @param state The position which is claimed to be lost.
+	 * @return Whether the certificate proves that the position is lost.
+	 */
+	public boolean verify(BaronessState state) {
+		if (state.hasWon()) {
+			return false;
+		}
+		if (reason == Reason.NO_MOVES) {
+			return state.generateMoves(new int[EncodedMove.MAX_MOVES]) == 0;
+		}
+
+		// the locked cards are in the columns, with one in every column
+		long found = 0;
+		long covered = 0;
+		long inPlay = 0;
+		for (int i = 0; i < BaronessState.COLUMNS; i++) {
+			boolean below = false;
+			for (int j = state.getColumnCount(i) - 1; j >= 0; j--) {
+				byte card = state.getCard(i, j);
+				inPlay |= 1L << card;
+				if (below) {
+					covered |= 1L << card;
+				} else if ((cards & 1L << card) != 0) {
+					below = true;
+				}
+				found |= cards & 1L << card;
+			}
+			if (!below) {
+				return false;
+			}
+		}
+		for (int i = 0; i < state.getDeckCount(); i++) {
+			inPlay |= 1L << state.getDeckCard(i);
+		}
+		if (found != cards) {
+			return false;
+		}
+
+		// and none of them has a partner which is not beneath one of them
+		for (long rest = cards; rest != 0; rest &= rest - 1) {
+			int card = Long.numberOfTrailingZeros(rest);
+			if (PARTNERS[card] == 0 || (PARTNERS[card] & inPlay & ~covered) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return Why the position is lost.
+	 */
+	public Reason getReason() {
+		return reason;
+	}
+
+	/**
+	 * @return The locked cards as a bit for each card's encoding (see
+	 *         {@link BaronessState#encode(ks.common.model.Card)}), or 0 if
+	 *         the position has no moves.
+	 */
+	public long getCards() {
+		return cards;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(reason.toString());
+		for (long rest = cards; rest != 0; rest &= rest - 1) {
+			int card = Long.numberOfTrailingZeros(rest);
+			builder.append(' ').append(BaronessState.toCard((byte) card));
+		}
+		return builder.toString();
+	}
+}
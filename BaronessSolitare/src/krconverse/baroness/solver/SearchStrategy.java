@@ -0,0 +1,41 @@
+/**
+ * SearchStrategy.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+/**
+ * The ways a {@link BaronessSolver} can search for a win. Every strategy
+ * searches the same positions and moves, so their results can be compared
+ * directly.
+ */
+public enum SearchStrategy {
+	/**
+	 * Searches as deep as it can before trying another move. This uses the
+	 * least memory and is usually the fastest way to find out whether a deal
+	 * can be won, but the win it finds can be longer than needed.
+	 */
+	DEPTH_FIRST,
+	/**
+	 * Searches depth first again and again, never going past a bound on the
+	 * moves made plus the {@link SolverHeuristic#lowerBound(BaronessState)}
+	 * which is raised by one each time. The first win found is one of the
+	 * shortest.
+	 */
+	ITERATIVE_DEEPENING,
+	/**
+	 * Always expands the position with the lowest moves made plus
+	 * {@link SolverHeuristic#lowerBound(BaronessState)}, like A*. The first
+	 * win found is one of the shortest, but every position seen is kept in
+	 * memory.
+	 */
+	BEST_FIRST,
+	/**
+	 * Expands positions like {@link #BEST_FIRST}, but weighs the heuristic
+	 * more heavily than the moves made, which finds a win much sooner at the
+	 * cost of it no longer being the shortest (see
+	 * {@link BaronessSolver#setWeight(double)}).
+	 */
+	WEIGHTED_BEST_FIRST
+}
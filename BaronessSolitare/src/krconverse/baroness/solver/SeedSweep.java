@@ -0,0 +1,264 @@
+/**
+ * SeedSweep.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.management.JMException;
+
+import krconverse.baroness.state.BaronessState;
+
+/**
+ * Solves a range of seeds in parallel and writes one line per seed with the
+ * outcome, the number of positions expanded and the time it took.
+ * <p>
+ * Each seed is dealt exactly like a game started with it (see
+ * {@link BaronessState#fromSeed(int)}), and the deals are solved on a
+ * fork-join pool with one {@link BaronessSolver} for each worker thread.
+ * Every seed is a task of its own, and up to {@link #WINDOW} seeds past the
+ * lowest one not written yet are solved at once, so a deal which takes long
+ * to solve holds up the output but not the other threads. Lines are written
+ * in seed order as soon as every lower seed is done, so the output only
+ * depends on the seeds.
+ * <p>
+ * Every search is added up by the sweep's {@link SolverMonitor}, which can be
+ * watched over JMX, and the full {@link SolverStatistics} of each seed can be
+ * written to a separate report.
+ */
+public class SeedSweep {
+	/** The most seeds solved ahead of the lowest one not written yet. */
+	static final int WINDOW = 1024;
+	/** The columns written at the top of the output. */
+	public static final String HEADER = "seed,outcome,nodes,millis";
+
+	final ForkJoinPool pool;
+	final ThreadLocal<BaronessSolver> solvers;
+	final SolverMonitor monitor = new SolverMonitor(); // totals of every search
+	SolutionCache cache; // verdicts to reuse, or null
+	Writer report; // where the statistics of each seed are written, or null
+	int window = WINDOW; // most seeds solved ahead of the lowest one not written yet
+
+	int won; // number of seeds won so far
+	int lost; // number of seeds proven lost so far
+	int unknown; // number of seeds given up on so far
+
+	/**
+	 * Creates a new sweep.
+	 * @param parallelism The number of threads to solve with.
+	 * @param nodeLimit The most positions to expand for each seed, or 0 for
+	 *            no limit.
+	 */
+	public SeedSweep(int parallelism, final long nodeLimit) {
+		this.pool = new ForkJoinPool(parallelism);
+		this.solvers = new ThreadLocal<BaronessSolver>() {
+			@Override
+			protected BaronessSolver initialValue() {
+				BaronessSolver solver = new BaronessSolver(nodeLimit);
+				solver.setMonitor(monitor);
+				return solver;
+			}
+		};
+	}
+
+	/**
+	 * Solves every seed in a range.
+	 * @param firstSeed The first seed to solve.
+	 * @param lastSeed The last seed to solve, inclusive.
+	 * @param out Where to write the results.
+	 * @throws IOException If the results could not be written.
+	 */
+	public void run(int firstSeed, int lastSeed, Writer out) throws IOException {
+		out.write(HEADER);
+		out.write('\n');
+		if (report != null) {
+			report.write(SolverStatistics.REPORT_HEADER);
+			report.write('\n');
+		}
+
+		ArrayDeque<SeedTask> pending = new ArrayDeque<SeedTask>(); // seeds being solved, lowest first
+		long next = firstSeed; // next seed to start solving
+		while (next <= lastSeed || !pending.isEmpty()) {
+			while (pending.size() < window && next <= lastSeed) {
+				SeedTask task = new SeedTask((int) next++);
+				pool.execute(task);
+				pending.add(task);
+			}
+
+			SeedTask task = pending.peek();
+			if (!task.isDone()) {
+				// write out what is done before waiting on the lowest seed
+				out.flush();
+				if (report != null) {
+					report.flush();
+				}
+			}
+			task.join();
+			pending.poll();
+
+			switch (task.outcome) {
+			case WON:
+				won++;
+				break;
+			case LOST:
+				lost++;
+				break;
+			default:
+				unknown++;
+			}
+			out.write(task.seed + "," + task.outcome + "," + task.nodes + "," + task.time / 1000000.0 + "\n");
+			if (report != null && task.statistics != null) {
+				report.write(task.statistics.report(task.seed, task.outcome));
+				report.write('\n');
+			}
+		}
+		out.flush();
+		if (report != null) {
+			report.flush();
+		}
+	}
+
+	/**
+	 * Sets a cache of verdicts which is consulted before solving each seed and
+	 * filled in afterwards. Seeds found in the cache are reported with the
+	 * nodes that were expanded when they were first solved.
+	 * @param cache The cache to use, or null to always solve.
+	 */
+	public void setCache(SolutionCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Sets where to write the {@link SolverStatistics} of each seed, in the
+	 * columns of {@link SolverStatistics#REPORT_HEADER}. Seeds found in the
+	 * cache were not searched, so they are left out of the report.
+	 * @param report Where to write the report, or null for no report.
+	 */
+	public void setReport(Writer report) {
+		this.report = report;
+	}
+
+	/**
+	 * @return The monitor which adds up every search of the sweep.
+	 */
+	public SolverMonitor getMonitor() {
+		return monitor;
+	}
+
+	/**
+	 * Stops the threads of the sweep.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * @return The number of seeds which were won.
+	 */
+	public int getWon() {
+		return won;
+	}
+
+	/**
+	 * @return The number of seeds which were proven to be lost.
+	 */
+	public int getLost() {
+		return lost;
+	}
+
+	/**
+	 * @return The number of seeds which hit the node limit.
+	 */
+	public int getUnknown() {
+		return unknown;
+	}
+
+	/**
+	 * Solves a single seed.
+	 */
+	class SeedTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		final int seed;
+		SolverResult.Outcome outcome;
+		long nodes; // positions expanded, now or when the seed was cached
+		long time; // nanoseconds it took
+		SolverStatistics statistics; // null for seeds found in the cache
+
+		SeedTask(int seed) {
+			this.seed = seed;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			long started = System.nanoTime();
+			SolutionCache.Entry entry = cache != null ? cache.get(seed, BaronessSolver.VARIANT) : null;
+			if (entry != null) {
+				outcome = entry.getOutcome();
+				nodes = entry.getNodes();
+			} else {
+				BaronessSolver solver = solvers.get();
+				SolverResult result = solver.solve(BaronessState.fromSeed(seed));
+				if (cache != null) {
+					cache.put(seed, BaronessSolver.VARIANT, result);
+				}
+				outcome = result.getOutcome();
+				nodes = result.getNodes();
+				statistics = solver.getStatistics().copy();
+			}
+			time = System.nanoTime() - started;
+		}
+	}
+
+	/**
+	 * Sweeps a range of seeds and writes the results to standard output.
+	 * <p>
+	 * Usage: {@code SeedSweep firstSeed lastSeed [nodeLimit [threads [cacheFile [reportFile]]]]},
+	 * where a cache file of {@code -} means no cache. The totals of the sweep
+	 * can be watched over JMX while it runs.
+	 * @param args The command line arguments.
+	 * @throws IOException If the results could not be written.
+	 * @throws JMException If the monitor could not be registered.
+	 */
+	public static void main(String[] args) throws IOException, JMException {
+		if (args.length < 2) {
+			System.err.println("Usage: SeedSweep firstSeed lastSeed [nodeLimit [threads [cacheFile [reportFile]]]]");
+			return;
+		}
+		int firstSeed = Integer.parseInt(args[0]);
+		int lastSeed = Integer.parseInt(args[1]);
+		long nodeLimit = args.length > 2 ? Long.parseLong(args[2]) : 0;
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+		SeedSweep sweep = new SeedSweep(threads, nodeLimit);
+		sweep.getMonitor().register(firstSeed + "-" + lastSeed);
+		SolutionCache cache = args.length > 4 && !args[4].equals("-") ? new SolutionCache(new File(args[4])) : null;
+		sweep.setCache(cache);
+		Writer report = args.length > 5 ? new FileWriter(args[5]) : null;
+		sweep.setReport(report);
+		Writer out = new OutputStreamWriter(System.out);
+		sweep.run(firstSeed, lastSeed, out);
+		out.flush();
+		sweep.shutdown();
+		sweep.getMonitor().unregister();
+		if (cache != null) {
+			cache.close();
+		}
+		if (report != null) {
+			report.close();
+		}
+		System.err.println("won=" + sweep.getWon() + " lost=" + sweep.getLost() + " unknown=" + sweep.getUnknown());
+	}
+}
@@ -0,0 +1,268 @@
+/**
+ * SolutionCache.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import krconverse.baroness.state.BaronessState;
+
+/**
+ * A persistent cache of solver verdicts, keyed by seed and rule variant.
+ * <p>
+ * The cache is an append-only file of fixed-width records which is memory
+ * mapped while it is open. Each record holds the seed, the rule variant, the
+ * number of positions the solver expanded, the length of the solution and
+ * the outcome. Only definite verdicts ({@link SolverResult.Outcome#WON} and
+ * {@link SolverResult.Outcome#LOST}) are stored, since an unknown outcome
+ * depends on the node limit of the search.
+ * <p>
+ * All of the methods are synchronized, so a cache can be shared by the
+ * threads of a {@link SeedSweep}.
+ */
+public class SolutionCache implements Closeable {
+	static final int MAGIC = 0x42415243; // "BARC"
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 8;
+	static final int RECORD_SIZE = 24;
+	static final int GROWTH = 1 << 16; // records to make room for at a time
+
+	final RandomAccessFile file;
+	final FileChannel channel;
+	MappedByteBuffer buffer;
+	int capacity; // records which fit in the mapped region
+	int size; // records written
+
+	// open addressing index from the key of a record to its position
+	long[] keys = new long[1 << 10];
+	int[] positions = new int[1 << 10];
+
+	/**
+	 * Opens a cache, creating the file if it does not exist yet.
+	 * @param path The file the cache is stored in.
+	 * @throws IOException If the file could not be opened or is not a cache.
+	 */
+	public SolutionCache(File path) throws IOException {
+		file = new RandomAccessFile(path, "rw");
+		channel = file.getChannel();
+
+		long records = Math.max(0, (channel.size() - HEADER_SIZE) / RECORD_SIZE);
+		map((int) Math.max(records, GROWTH));
+		if (buffer.getInt(0) == 0) {
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, VERSION);
+		} else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			close();
+			throw new IOException(path + " is not a Baroness solution cache");
+		}
+
+		// read the records which were written before, stopping at the unused tail
+		while (size < capacity && buffer.get(offset(size) + 20) != 0) {
+			index(key(buffer.getInt(offset(size)), buffer.getInt(offset(size) + 4)), size);
+			size++;
+		}
+	}
+
+	/**
+	 * Looks up the verdict for a seed.
+	 * @param seed The seed of the deal.
+	 * @param variant The rule variant the deal was solved with.
+	 * @return The cached verdict, or null if the seed has not been solved.
+	 */
+	public synchronized Entry get(int seed, int variant) {
+		int position = find(key(seed, variant));
+		if (position < 0) {
+			return null;
+		}
+		int offset = offset(position);
+		return new Entry(SolverResult.Outcome.values()[buffer.get(offset + 20) - 1], buffer.getInt(offset + 16),
+				buffer.getLong(offset + 8));
+	}
+
+	/**
+	 * Stores the verdict for a seed, unless it is already stored or the
+	 * outcome is unknown.
+	 * @param seed The seed of the deal.
+	 * @param variant The rule variant the deal was solved with.
+	 * @param result The result of solving the deal.
+	 * @return Whether the verdict was stored.
+	 */
+	public synchronized boolean put(int seed, int variant, SolverResult result) {
+		long key = key(seed, variant);
+		if (result.getOutcome() == SolverResult.Outcome.UNKNOWN || find(key) >= 0) {
+			return false;
+		}
+		if (size == capacity) {
+			try {
+				map(capacity + GROWTH);
+			} catch (IOException e) {
+				throw new IllegalStateException("Could not grow the solution cache", e);
+			}
+		}
+
+		int offset = offset(size);
+		buffer.putInt(offset, seed);
+		buffer.putInt(offset + 4, variant);
+		buffer.putLong(offset + 8, result.getNodes());
+		buffer.putInt(offset + 16, result.moves.length);
+		buffer.put(offset + 20, (byte) (result.getOutcome().ordinal() + 1)); // written last, marks the record as used
+		index(key, size);
+		size++;
+		return true;
+	}
+
+	/**
+	 * Solves a seed, unless its verdict is already in the cache, and stores
+	 * the verdict afterwards.
+	 * @param solver The solver to use when the seed is not cached.
+	 * @param seed The seed of the deal.
+	 * @return The verdict for the seed.
+	 */
+	public Entry solve(BaronessSolver solver, int seed) {
+		Entry entry = get(seed, BaronessSolver.VARIANT);
+		if (entry == null) {
+			SolverResult result = solver.solve(BaronessState.fromSeed(seed));
+			put(seed, BaronessSolver.VARIANT, result);
+			entry = new Entry(result.getOutcome(), result.moves.length, result.getNodes());
+		}
+		return entry;
+	}
+
+	/**
+	 * @return The number of verdicts in the cache.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (buffer != null) {
+			buffer.force();
+		}
+		channel.close();
+		file.close();
+	}
+
+	/**
+	 * Maps enough of the file for a number of records.
+	 * @param records The number of records to make room for.
+	 * @throws IOException If the file could not be mapped.
+	 */
+	void map(int records) throws IOException {
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) records * RECORD_SIZE);
+		capacity = records;
+	}
+
+	/**
+	 * @param position The position of a record.
+	 * @return The offset of the record in the file.
+	 */
+	static int offset(int position) {
+		return HEADER_SIZE + position * RECORD_SIZE;
+	}
+
+	/**
+	 * @param seed The seed of a deal.
+	 * @param variant The rule variant.
+	 * @return The key of the deal in the index.
+	 */
+	static long key(int seed, int variant) {
+		return (long) variant << 32 | seed & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * @param key The key of a deal.
+	 * @return The position of its record, or -1 if it has none.
+	 */
+	int find(long key) {
+		int mask = keys.length - 1;
+		for (int slot = LongHashSet.mix(key) & mask; positions[slot] != 0; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				return positions[slot] - 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Adds a record to the index.
+	 * @param key The key of the deal.
+	 * @param position The position of its record.
+	 */
+	void index(long key, int position) {
+		if ((size + 1) * 2 > keys.length) {
+			long[] oldKeys = keys;
+			int[] oldPositions = positions;
+			keys = new long[oldKeys.length * 2];
+			positions = new int[oldKeys.length * 2];
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldPositions[i] != 0) {
+					insert(oldKeys[i], oldPositions[i]);
+				}
+			}
+		}
+		insert(key, position + 1);
+	}
+
+	/**
+	 * Puts a key into a free slot of the index.
+	 * @param key The key of the deal.
+	 * @param stored The position of its record plus one, so that 0 is free.
+	 */
+	void insert(long key, int stored) {
+		int mask = keys.length - 1;
+		int slot = LongHashSet.mix(key) & mask;
+		while (positions[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		positions[slot] = stored;
+	}
+
+	/**
+	 * A verdict stored in the cache.
+	 */
+	public static class Entry {
+		final SolverResult.Outcome outcome;
+		final int length;
+		final long nodes;
+
+		Entry(SolverResult.Outcome outcome, int length, long nodes) {
+			this.outcome = outcome;
+			this.length = length;
+			this.nodes = nodes;
+		}
+
+		/**
+		 * @return Whether the deal was won or lost.
+		 */
+		public SolverResult.Outcome getOutcome() {
+			return outcome;
+		}
+
+		/**
+		 * @return The number of moves in the solution, or 0 if it was lost.
+		 */
+		public int getLength() {
+			return length;
+		}
+
+		/**
+		 * @return The number of positions the solver expanded.
+		 */
+		public long getNodes() {
+			return nodes;
+		}
+	}
+}
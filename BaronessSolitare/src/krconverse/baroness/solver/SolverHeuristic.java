@@ -0,0 +1,67 @@
+/**
+ * SolverHeuristic.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import krconverse.baroness.state.BaronessState;
+
+/**
+ * Estimates how many moves it takes to win a position of Baroness.
+ * <p>
+ * Every King has to be played on its own and every other card in a pair, and
+ * the deck takes one deal for every five cards, so those moves are needed in
+ * any win. On top of that, a card whose remaining partners are all beneath
+ * it in its own column can only be paired after it has been moved to an
+ * empty column. Each of these counts can drop by at most one with each move,
+ * so the estimate never overestimates and is consistent, which lets a
+ * best-first search stop at the first win it finds.
+ */
+public final class SolverHeuristic {
+
+	/**
+	 * The heuristic is only used through the static methods.
+	 */
+	private SolverHeuristic() {
+	}
+
+	/**
+	 * @param state The position to estimate.
+	 * @return The fewest moves which could win the position.
+	 */
+	public static int lowerBound(BaronessState state) {
+		int[] counts = new int[14];
+		state.countRanks(counts);
+		int kings = counts[13];
+		int deals = (state.getDeckCount() + BaronessState.COLUMNS - 1) / BaronessState.COLUMNS;
+		return kings + (state.getScore() - kings) / 2 + deals + blockedCards(state, counts);
+	}
+
+	/**
+	 * Counts the cards which are blocked by their own column: every card
+	 * which could be paired with them is further down in the same column.
+	 * @param state The position to look at.
+	 * @param counts The number of cards of each rank which have not been
+	 *            played, as written by {@link BaronessState#countRanks(int[])}.
+	 * @return The number of blocked cards.
+	 */
+	public static int blockedCards(BaronessState state, int[] counts) {
+		int blocked = 0;
+		int[] below = new int[14]; // cards of each rank further down the column
+		for (int i = 0; i < BaronessState.COLUMNS; i++) {
+			int height = state.getColumnCount(i);
+			for (int rank = 1; rank < 14; rank++) {
+				below[rank] = 0;
+			}
+			for (int j = 0; j < height; j++) {
+				int rank = BaronessState.rank(state.getCard(i, j));
+				if (rank != 13 && below[13 - rank] == counts[13 - rank]) {
+					blocked++;
+				}
+				below[rank]++;
+			}
+		}
+		return blocked;
+	}
+}
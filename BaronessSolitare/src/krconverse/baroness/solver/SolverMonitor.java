@@ -0,0 +1,209 @@
+/**
+ * SolverMonitor.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * Adds up the {@link SolverStatistics} of every search made by the solvers
+ * which report to it, so that they can be watched over JMX while a batch of
+ * seeds is being solved. Any number of solvers on any threads can report to
+ * the same monitor.
+ */
+public class SolverMonitor implements SolverStatisticsMXBean {
+	final SolverStatistics totals = new SolverStatistics();
+	final long[] outcomes = new long[SolverResult.Outcome.values().length]; // searches by outcome
+	ObjectName name; // name the monitor is registered under, or null
+
+	/**
+	 * Adds a finished search to the totals.
+	 * @param statistics The counters of the search.
+	 * @param outcome What the search found out.
+	 */
+	public synchronized void record(SolverStatistics statistics, SolverResult.Outcome outcome) {
+		totals.add(statistics);
+		outcomes[outcome.ordinal()]++;
+	}
+
+	/**
+	 * @return A copy of the totals as they are now.
+	 */
+	public synchronized SolverStatistics getTotals() {
+		return totals.copy();
+	}
+
+	/**
+	 * Registers the monitor with the platform MBean server, under
+	 * {@code krconverse.baroness:type=Solver,name=<name>}.
+	 * @param name The name to tell the monitor apart from others.
+	 * @throws JMException If the monitor could not be registered.
+	 */
+	public synchronized void register(String name) throws JMException {
+		ObjectName objectName = new ObjectName("krconverse.baroness:type=Solver,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		this.name = objectName;
+	}
+
+	/**
+	 * Removes the monitor from the platform MBean server, if it was
+	 * registered.
+	 * @throws JMException If the monitor could not be removed.
+	 */
+	public synchronized void unregister() throws JMException {
+		if (name != null) {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+			name = null;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getSearches()
+	 */
+	@Override
+	public synchronized long getSearches() {
+		long searches = 0;
+		for (long count : outcomes) {
+			searches += count;
+		}
+		return searches;
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getWon()
+	 */
+	@Override
+	public synchronized long getWon() {
+		return outcomes[SolverResult.Outcome.WON.ordinal()];
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getLost()
+	 */
+	@Override
+	public synchronized long getLost() {
+		return outcomes[SolverResult.Outcome.LOST.ordinal()];
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getUnknown()
+	 */
+	@Override
+	public synchronized long getUnknown() {
+		return outcomes[SolverResult.Outcome.UNKNOWN.ordinal()];
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getNodes()
+	 */
+	@Override
+	public synchronized long getNodes() {
+		return totals.getNodes();
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getKingMoves()
+	 */
+	@Override
+	public synchronized long getKingMoves() {
+		return totals.getGenerated(EncodedMove.KING);
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getPairMoves()
+	 */
+	@Override
+	public synchronized long getPairMoves() {
+		return totals.getGenerated(EncodedMove.PAIR);
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getEmptyColumnMoves()
+	 */
+	@Override
+	public synchronized long getEmptyColumnMoves() {
+		return totals.getGenerated(EncodedMove.EMPTY_COLUMN);
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getDealMoves()
+	 */
+	@Override
+	public synchronized long getDealMoves() {
+		return totals.getGenerated(EncodedMove.DEAL);
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getTranspositionHits()
+	 */
+	@Override
+	public synchronized long getTranspositionHits() {
+		return totals.getTranspositionHits();
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getDeadEnds()
+	 */
+	@Override
+	public synchronized long getDeadEnds() {
+		return totals.getDeadEnds();
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getMaxDepth()
+	 */
+	@Override
+	public synchronized int getMaxDepth() {
+		return totals.getMaxDepth();
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getDepthHistogram()
+	 */
+	@Override
+	public synchronized long[] getDepthHistogram() {
+		return totals.getDepthHistogram();
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getWallTimeMillis()
+	 */
+	@Override
+	public synchronized long getWallTimeMillis() {
+		return totals.getWallTime() / 1000000;
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getNodesPerSecond()
+	 */
+	@Override
+	public synchronized double getNodesPerSecond() {
+		return totals.getNodesPerSecond();
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#getBranchingFactor()
+	 */
+	@Override
+	public synchronized double getBranchingFactor() {
+		return totals.getBranchingFactor();
+	}
+
+	/* (non-Javadoc)
+	 * @see krconverse.baroness.solver.SolverStatisticsMXBean#reset()
+	 */
+	@Override
+	public synchronized void reset() {
+		totals.reset();
+		for (int i = 0; i < outcomes.length; i++) {
+			outcomes[i] = 0;
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ * SolverResult.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * The outcome of solving a deal of Baroness.
+ */
+public class SolverResult {
+	/**
+	 * What the solver found out about a deal.
+	 */
+	public enum Outcome {
+		/** A winning sequence of moves was found. */
+		WON,
+		/** Every reachable position was searched without finding a win. */
+		LOST,
+		/** The search was stopped before it could finish. */
+		UNKNOWN
+	}
+
+	final Outcome outcome;
+	final int[] moves;
+	final long nodes;
+	final int positions;
+	final LossCertificate certificate;
+
+	/**
+	 * Creates a new result.
+	 * @param outcome What the solver found out about the deal.
+	 * @param moves The encoded winning moves, or an empty array.
+	 * @param nodes The number of positions which were expanded.
+	 * @param positions The number of distinct positions which were stored.
+	 */
+	public SolverResult(Outcome outcome, int[] moves, long nodes, int positions) {
+		this(outcome, moves, nodes, positions, null);
+	}
+
+	/**
+	 * Creates a new result.
+	 * @param outcome What the solver found out about the deal.
+	 * @param moves The encoded winning moves, or an empty array.
+	 * @param nodes The number of positions which were expanded.
+	 * @param positions The number of distinct positions which were stored.
+	 * @param certificate The proof that the starting position is lost on its
+	 *            face, or null.
+	 */
+	public SolverResult(Outcome outcome, int[] moves, long nodes, int positions, LossCertificate certificate) {
+		this.outcome = outcome;
+		this.moves = moves;
+		this.nodes = nodes;
+		this.positions = positions;
+		this.certificate = certificate;
+	}
+
+	/**
+	 * @return What the solver found out about the deal.
+	 */
+	public Outcome getOutcome() {
+		return outcome;
+	}
+
+	/**
+	 * @return Whether a winning sequence of moves was found.
+	 */
+	public boolean isWon() {
+		return outcome == Outcome.WON;
+	}
+
+	/**
+	 * Returns the proof that a deal cannot be won: the search ran to the end,
+	 * and every one of {@link #getPositions()} reachable positions was lost.
+	 * @return Whether the deal was proven to be unwinnable.
+	 */
+	public boolean isProvenLost() {
+		return outcome == Outcome.LOST;
+	}
+
+	/**
+	 * Returns a proof that the starting position was lost without having to
+	 * search it, if there is one. Most lost deals are only proven lost by the
+	 * whole search, and have no certificate.
+	 * @return The certificate, or null.
+	 */
+	public LossCertificate getCertificate() {
+		return certificate;
+	}
+
+	/**
+	 * Returns the encoded winning moves, in the order they are made. Each move
+	 * can be created on the game's model with
+	 * {@link krconverse.Baroness#createMove(int)} once the moves before it
+	 * have been made.
+	 * @return The encoded winning moves.
+	 * @see EncodedMove
+	 */
+	public int[] getMoves() {
+		return moves.clone();
+	}
+
+	/**
+	 * @return The number of positions which were expanded.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return The number of distinct positions which were stored.
+	 */
+	public int getPositions() {
+		return positions;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(outcome).append(" nodes=").append(nodes).append(" positions=").append(positions);
+		if (certificate != null) {
+			builder.append(" certificate=").append(certificate);
+		}
+		for (int move : moves) {
+			builder.append(' ').append(EncodedMove.toString(move));
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,188 @@
+/**
+ * SolverStatistics.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * Counts what a {@link BaronessSolver} did while searching: the positions it
+ * expanded at each depth, the moves it generated of each type, how often it
+ * reached a position it had already searched and how long it took.
+ * <p>
+ * The counters are updated by the solver as it searches, so they must only be
+ * read by the thread running the solver, or from a {@link #copy()}.
+ */
+public class SolverStatistics {
+	/** The columns of a line written by {@link #report(int, SolverResult.Outcome)}. */
+	public static final String REPORT_HEADER = "seed,outcome,nodes,kings,pairs,emptyColumns,deals,transpositionHits,deadEnds,maxDepth,millis,nodesPerSecond,branchingFactor";
+
+	long nodes; // positions expanded
+	long[] generated = new long[4]; // moves generated by type
+	long transpositionHits; // positions reached which were already searched
+	long deadEnds; // positions which were proven lost without searching them
+	int maxDepth; // deepest position expanded
+	long[] depths = new long[64]; // positions expanded at each depth
+	long wallTime; // nanoseconds spent searching
+
+	/**
+	 * Sets every counter back to zero.
+	 */
+	public void reset() {
+		nodes = 0;
+		Arrays.fill(generated, 0);
+		transpositionHits = 0;
+		deadEnds = 0;
+		maxDepth = 0;
+		Arrays.fill(depths, 0);
+		wallTime = 0;
+	}
+
+	/**
+	 * Counts a position which is expanded.
+	 * @param depth The number of moves made to reach the position.
+	 */
+	void expanded(int depth) {
+		nodes++;
+		if (depth >= depths.length) {
+			depths = Arrays.copyOf(depths, Math.max(depth + 1, depths.length * 2));
+		}
+		depths[depth]++;
+		if (depth > maxDepth) {
+			maxDepth = depth;
+		}
+	}
+
+	/**
+	 * Adds the counters of another search to these ones.
+	 * @param other The counters to add.
+	 */
+	public void add(SolverStatistics other) {
+		nodes += other.nodes;
+		for (int i = 0; i < generated.length; i++) {
+			generated[i] += other.generated[i];
+		}
+		transpositionHits += other.transpositionHits;
+		deadEnds += other.deadEnds;
+		maxDepth = Math.max(maxDepth, other.maxDepth);
+		if (other.depths.length > depths.length) {
+			depths = Arrays.copyOf(depths, other.depths.length);
+		}
+		for (int i = 0; i < other.depths.length; i++) {
+			depths[i] += other.depths[i];
+		}
+		wallTime += other.wallTime;
+	}
+
+	/**
+	 * @return A copy of the counters as they are now.
+	 */
+	public SolverStatistics copy() {
+		SolverStatistics copy = new SolverStatistics();
+		copy.add(this);
+		return copy;
+	}
+
+	/**
+	 * @return The number of positions which were expanded.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @param type The type of move, as in {@link EncodedMove}.
+	 * @return The number of moves of the type which were generated.
+	 */
+	public long getGenerated(int type) {
+		return generated[type];
+	}
+
+	/**
+	 * @return The number of positions reached which had already been
+	 *         searched.
+	 */
+	public long getTranspositionHits() {
+		return transpositionHits;
+	}
+
+	/**
+	 * @return The number of positions which were proven lost without
+	 *         searching them, with a {@link LossCertificate}.
+	 */
+	public long getDeadEnds() {
+		return deadEnds;
+	}
+
+	/**
+	 * @return The largest number of moves made to reach an expanded position.
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * @return The number of positions expanded at each depth, up to the
+	 *         largest depth reached.
+	 */
+	public long[] getDepthHistogram() {
+		return Arrays.copyOf(depths, nodes == 0 ? 0 : maxDepth + 1);
+	}
+
+	/**
+	 * @return The number of nanoseconds spent searching.
+	 */
+	public long getWallTime() {
+		return wallTime;
+	}
+
+	/**
+	 * @return The number of positions expanded per second of searching.
+	 */
+	public double getNodesPerSecond() {
+		return wallTime == 0 ? 0 : nodes * 1e9 / wallTime;
+	}
+
+	/**
+	 * @return The average number of moves generated for each expanded
+	 *         position.
+	 */
+	public double getBranchingFactor() {
+		long moves = 0;
+		for (long count : generated) {
+			moves += count;
+		}
+		return nodes == 0 ? 0 : (double) moves / nodes;
+	}
+
+	/**
+	 * Writes the counters as a line of comma separated values, in the columns
+	 * of {@link #REPORT_HEADER}.
+	 * @param seed The seed which was solved.
+	 * @param outcome What the solver found out about the seed.
+	 * @return The line, without a line break.
+	 */
+	public String report(int seed, SolverResult.Outcome outcome) {
+		return seed + "," + outcome + "," + nodes
+				+ "," + generated[EncodedMove.KING] + "," + generated[EncodedMove.PAIR]
+				+ "," + generated[EncodedMove.EMPTY_COLUMN] + "," + generated[EncodedMove.DEAL]
+				+ "," + transpositionHits + "," + deadEnds + "," + maxDepth + "," + wallTime / 1000000.0
+				+ "," + Math.round(getNodesPerSecond()) + "," + String.format(Locale.ROOT, "%.3f", getBranchingFactor());
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "nodes=" + nodes + " kings=" + generated[EncodedMove.KING] + " pairs=" + generated[EncodedMove.PAIR]
+				+ " emptyColumns=" + generated[EncodedMove.EMPTY_COLUMN] + " deals=" + generated[EncodedMove.DEAL]
+				+ " transpositionHits=" + transpositionHits + " deadEnds=" + deadEnds + " maxDepth=" + maxDepth
+				+ " millis=" + wallTime / 1000000.0;
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ * SolverStatisticsMXBean.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+/**
+ * The management interface of a {@link SolverMonitor}, showing the totals of
+ * every search it has seen.
+ */
+public interface SolverStatisticsMXBean {
+
+	/**
+	 * @return The number of searches which have finished.
+	 */
+	long getSearches();
+
+	/**
+	 * @return The number of searches which found a win.
+	 */
+	long getWon();
+
+	/**
+	 * @return The number of searches which proved a deal to be lost.
+	 */
+	long getLost();
+
+	/**
+	 * @return The number of searches which were stopped by a limit.
+	 */
+	long getUnknown();
+
+	/**
+	 * @return The number of positions which were expanded.
+	 */
+	long getNodes();
+
+	/**
+	 * @return The number of King moves which were generated.
+	 */
+	long getKingMoves();
+
+	/**
+	 * @return The number of pair moves which were generated.
+	 */
+	long getPairMoves();
+
+	/**
+	 * @return The number of moves to empty columns which were generated.
+	 */
+	long getEmptyColumnMoves();
+
+	/**
+	 * @return The number of deals which were generated.
+	 */
+	long getDealMoves();
+
+	/**
+	 * @return The number of positions reached which had already been
+	 *         searched.
+	 */
+	long getTranspositionHits();
+
+	/**
+	 * @return The number of positions which were proven lost without
+	 *         searching them.
+	 */
+	long getDeadEnds();
+
+	/**
+	 * @return The largest number of moves made to reach an expanded position.
+	 */
+	int getMaxDepth();
+
+	/**
+	 * @return The number of positions expanded at each depth.
+	 */
+	long[] getDepthHistogram();
+
+	/**
+	 * @return The number of milliseconds spent searching, added up over every
+	 *         thread.
+	 */
+	long getWallTimeMillis();
+
+	/**
+	 * @return The number of positions expanded per second of searching.
+	 */
+	double getNodesPerSecond();
+
+	/**
+	 * @return The average number of moves generated for each expanded
+	 *         position.
+	 */
+	double getBranchingFactor();
+
+	/**
+	 * Sets every total back to zero.
+	 */
+	void reset();
+}
@@ -0,0 +1,123 @@
+/**
+ * WinEstimate.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * The chance of winning after each move available in a position, as estimated
+ * by a {@link WinEstimator}.
+ */
+public class WinEstimate {
+	final int[] moves; // the encoded candidate moves
+	final int[] wins; // rollouts won after each move
+	final int[] rollouts; // rollouts played after each move
+	final long nanos; // time it took to make the estimate
+
+	/**
+	 * Creates a new estimate.
+	 * @param moves The encoded moves which were estimated.
+	 * @param wins The number of rollouts won after each move.
+	 * @param rollouts The number of rollouts played after each move.
+	 * @param nanos The time it took to make the estimate, in nanoseconds.
+	 */
+	public WinEstimate(int[] moves, int[] wins, int[] rollouts, long nanos) {
+		this.moves = moves;
+		this.wins = wins;
+		this.rollouts = rollouts;
+		this.nanos = nanos;
+	}
+
+	/**
+	 * @return The number of moves which were estimated.
+	 */
+	public int size() {
+		return moves.length;
+	}
+
+	/**
+	 * @param index The index of a move, in the order
+	 *            {@link krconverse.Baroness#availableMoves(int[])} returns
+	 *            them.
+	 * @return The encoded move.
+	 */
+	public int getMove(int index) {
+		return moves[index];
+	}
+
+	/**
+	 * @param index The index of a move.
+	 * @return The number of rollouts which were won after the move.
+	 */
+	public int getWins(int index) {
+		return wins[index];
+	}
+
+	/**
+	 * @param index The index of a move.
+	 * @return The number of rollouts which were played after the move.
+	 */
+	public int getRollouts(int index) {
+		return rollouts[index];
+	}
+
+	/**
+	 * @param index The index of a move.
+	 * @return The share of rollouts won after the move, or NaN if none were
+	 *         played.
+	 */
+	public double getProbability(int index) {
+		return rollouts[index] == 0 ? Double.NaN : (double) wins[index] / rollouts[index];
+	}
+
+	/**
+	 * @return The move with the best chance of winning, or -1 if no move was
+	 *         estimated.
+	 */
+	public int getBestMove() {
+		int best = -1;
+		double bestProbability = -1;
+		for (int i = 0; i < moves.length; i++) {
+			double probability = getProbability(i);
+			if (probability > bestProbability) {
+				best = moves[i];
+				bestProbability = probability;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @return The number of rollouts played after every move together.
+	 */
+	public int getTotalRollouts() {
+		int total = 0;
+		for (int count : rollouts) {
+			total += count;
+		}
+		return total;
+	}
+
+	/**
+	 * @return The time it took to make the estimate, in milliseconds.
+	 */
+	public double getMillis() {
+		return nanos / 1000000.0;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < moves.length; i++) {
+			builder.append(EncodedMove.toString(moves[i])).append('=').append(wins[i]).append('/')
+					.append(rollouts[i]).append(' ');
+		}
+		return builder.append("in ").append(getMillis()).append("ms").toString();
+	}
+}
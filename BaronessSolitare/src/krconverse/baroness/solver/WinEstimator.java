@@ -0,0 +1,242 @@
+/**
+ * WinEstimator.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import krconverse.Baroness;
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * Estimates the chance of winning after each available move by playing
+ * random games from it, for hints in positions which take too long to
+ * solve exactly.
+ * <p>
+ * The position is copied out of the game into a {@link BaronessState} once,
+ * and every rollout plays on copies of that, so the game and its widgets are
+ * never touched. The estimate is handed back as a future, so the caller is
+ * only held while the position is copied and the game can keep being played
+ * while the estimate runs. Each thread of the estimator takes turns over the
+ * moves, so every move gets about the same number of rollouts, and stops once
+ * the time budget of the estimate is spent or every move has had
+ * {@link #setRolloutLimit(int) enough} rollouts.
+ * <p>
+ * Only the latest estimate is worth finishing, since a hint is only asked
+ * for the position on the board: starting an estimate cuts short any which
+ * are still running. Every thread plays at least one rollout after each move
+ * before it stops, so an estimate which was cut short, or which had to wait
+ * for the threads, still says something.
+ * <p>
+ * A rollout plays like a hasty player: it plays a King or a pair whenever
+ * one is available, picking among them at random, otherwise sometimes moves
+ * a card to an empty column, and deals when there is nothing else it wants
+ * to do. The chances are therefore lower than those of a careful player, but
+ * the order of the moves tells which are safer.
+ */
+public class WinEstimator {
+	/** The most moves to empty columns a rollout makes between deals. */
+	static final int EMPTY_COLUMN_LIMIT = 3;
+	/** The default number of rollouts after each move before stopping early. */
+	public static final int ROLLOUT_LIMIT = 100000;
+	static final int DEAL = EncodedMove.encode(EncodedMove.DEAL, 0, 0);
+
+	final ExecutorService pool;
+	final int threads;
+	final AtomicLong latest = new AtomicLong(); // number of the latest estimate started
+	int rolloutLimit = ROLLOUT_LIMIT;
+
+	/**
+	 * Creates a new estimator with a thread for each processor.
+	 */
+	public WinEstimator() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new estimator.
+	 * @param threads The number of threads to play rollouts on.
+	 */
+	public WinEstimator(int threads) {
+		this.threads = threads;
+		this.pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			final AtomicLong count = new AtomicLong();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Baroness rollouts " + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Sets how many rollouts to play after each move before answering early.
+	 * @param rolloutLimit The most rollouts to play after each move.
+	 */
+	public void setRolloutLimit(int rolloutLimit) {
+		this.rolloutLimit = rolloutLimit;
+	}
+
+	/**
+	 * Estimates the moves available in a game. This has to be called on the
+	 * thread which plays the game, but only holds it for as long as it takes
+	 * to copy the position.
+	 * @param game The game.
+	 * @param budgetMillis How long to play rollouts for, in milliseconds.
+	 * @return The estimate, completed once the rollouts are done, with the
+	 *         moves in the order {@link Baroness#availableMoves(int[])}
+	 *         returns them.
+	 */
+	public CompletableFuture<WinEstimate> estimate(Baroness game, long budgetMillis) {
+		int[] buffer = new int[EncodedMove.MAX_MOVES];
+		int count = game.availableMoves(buffer);
+		return estimate(BaronessState.fromGame(game), Arrays.copyOf(buffer, count), budgetMillis);
+	}
+
+	/**
+	 * Estimates the moves available in a position.
+	 * @param state The position.
+	 * @param budgetMillis How long to play rollouts for, in milliseconds.
+	 * @return The estimate, completed once the rollouts are done, with the
+	 *         moves in the order {@link BaronessState#generateMoves(int[])}
+	 *         returns them.
+	 */
+	public CompletableFuture<WinEstimate> estimate(BaronessState state, long budgetMillis) {
+		int[] buffer = new int[EncodedMove.MAX_MOVES];
+		int count = state.generateMoves(buffer);
+		return estimate(state, Arrays.copyOf(buffer, count), budgetMillis);
+	}
+
+	/**
+	 * Estimates some moves in a position.
+	 * @param state The position.
+	 * @param moves The encoded moves to estimate, which have to be valid.
+	 * @param budgetMillis How long to play rollouts for, in milliseconds.
+	 * @return The estimate, completed once the rollouts are done.
+	 */
+	CompletableFuture<WinEstimate> estimate(BaronessState state, final int[] moves, final long budgetMillis) {
+		final long started = System.nanoTime();
+		final long deadline = started + budgetMillis * 1000000;
+		final long number = latest.incrementAndGet();
+		final BaronessState[] children = new BaronessState[moves.length];
+		for (int i = 0; i < moves.length; i++) {
+			children[i] = state.apply(moves[i]);
+		}
+
+		// every thread plays its share of the rollouts after every move
+		final List<CompletableFuture<int[]>> shares = new ArrayList<CompletableFuture<int[]>>(threads);
+		final int share = (int) (((long) rolloutLimit + threads - 1) / threads);
+		for (int t = 0; t < threads && moves.length > 0; t++) {
+			final int first = t % moves.length;
+			shares.add(CompletableFuture.supplyAsync(new Supplier<int[]>() {
+				@Override
+				public int[] get() {
+					return play(children, first, share, deadline, number);
+				}
+			}, pool));
+		}
+
+		return CompletableFuture.allOf(shares.toArray(new CompletableFuture<?>[shares.size()]))
+				.thenApply(new Function<Void, WinEstimate>() {
+					@Override
+					public WinEstimate apply(Void done) {
+						int[] wins = new int[moves.length];
+						int[] rollouts = new int[moves.length];
+						for (CompletableFuture<int[]> future : shares) {
+							int[] counts = future.join();
+							for (int i = 0; i < moves.length; i++) {
+								wins[i] += counts[i];
+								rollouts[i] += counts[moves.length + i];
+							}
+						}
+						return new WinEstimate(moves, wins, rollouts, System.nanoTime() - started);
+					}
+				});
+	}
+
+	/**
+	 * Plays rollouts after every move in turn on one thread.
+	 * @param children The position after each move.
+	 * @param first The move to start with.
+	 * @param limit The most rollouts to play after each move.
+	 * @param deadline When to stop, in {@link System#nanoTime()}.
+	 * @param number The number of the estimate, to stop once a later one is
+	 *            started.
+	 * @return The rollouts won after each move, followed by the rollouts
+	 *         played after each move.
+	 */
+	int[] play(BaronessState[] children, int first, int limit, long deadline, long number) {
+		int count = children.length;
+		int[] counts = new int[count * 2];
+		int[] moves = new int[EncodedMove.MAX_MOVES];
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int played = 0; played == 0
+				|| played < limit && System.nanoTime() < deadline && latest.get() == number; played++) {
+			for (int i = 0; i < count; i++) {
+				int move = (first + i) % count;
+				if (rollout(children[move], moves, random)) {
+					counts[move]++;
+				}
+				counts[count + move]++;
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Plays a random game to its end.
+	 * @param state The position to start from.
+	 * @param moves A buffer for generating moves.
+	 * @param random The source of the random choices.
+	 * @return Whether the game was won.
+	 */
+	static boolean rollout(BaronessState state, int[] moves, ThreadLocalRandom random) {
+		int emptyColumnMoves = 0; // moves to empty columns since the last deal
+		while (!state.hasWon()) {
+			int count = state.generateMoves(moves);
+			boolean canDeal = count > 0 && moves[count - 1] == DEAL;
+
+			// Kings and pairs come first, then moves to empty columns
+			int plays = 0;
+			while (plays < count && EncodedMove.type(moves[plays]) <= EncodedMove.PAIR) {
+				plays++;
+			}
+			int others = (canDeal ? count - 1 : count) - plays;
+
+			if (plays > 0) {
+				state = state.apply(moves[random.nextInt(plays)]);
+			} else if (others > 0 && emptyColumnMoves < EMPTY_COLUMN_LIMIT && (!canDeal || random.nextBoolean())) {
+				state = state.apply(moves[plays + random.nextInt(others)]);
+				emptyColumnMoves++;
+			} else if (canDeal) {
+				state = state.apply(DEAL);
+				emptyColumnMoves = 0;
+			} else {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stops the threads of the estimator.
+	 */
+	public void shutdown() {
+		pool.shutdownNow();
+	}
+}
@@ -0,0 +1,180 @@
+/**
+ * WinnableSeedQueue.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.util.Random;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+import krconverse.baroness.state.BaronessState;
+
+/**
+ * Keeps a bounded supply of seeds which are proven to be winnable.
+ * <p>
+ * A background thread draws candidate seeds, solves each of them within a
+ * time budget and adds the ones which are won to the queue, waiting while the
+ * queue is full. Deals which are lost or take too long to solve are skipped.
+ * Games take seeds from the queue when they start, so with spare seeds
+ * already solved a new game never has to wait for the solver. Only when none
+ * are spare does a game solve candidates itself, so that it still only deals
+ * winnable games.
+ */
+public class WinnableSeedQueue {
+	final BlockingDeque<Integer> seeds;
+	final long timeLimit;
+	final Random candidates;
+	SolutionCache cache; // verdicts to reuse, or null
+	Thread worker;
+
+	/**
+	 * Creates a new queue. Nothing is solved until the queue is started.
+	 * @param capacity The most spare seeds to keep solved.
+	 * @param timeLimit The most milliseconds to spend on each candidate.
+	 * @param candidateSeed The seed for drawing the candidate seeds.
+	 */
+	public WinnableSeedQueue(int capacity, long timeLimit, long candidateSeed) {
+		this.seeds = new LinkedBlockingDeque<Integer>(capacity);
+		this.timeLimit = timeLimit;
+		this.candidates = new Random(candidateSeed);
+	}
+
+	/**
+	 * Sets a cache of verdicts to consult before solving each candidate.
+	 * @param cache The cache to use, or null to always solve.
+	 */
+	public void setCache(SolutionCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Starts solving candidates in the background.
+	 */
+	public synchronized void start() {
+		if (worker != null) {
+			return;
+		}
+		worker = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				fill();
+			}
+		}, "Baroness winnable seeds");
+		worker.setDaemon(true);
+		worker.setPriority(Thread.MIN_PRIORITY);
+		worker.start();
+	}
+
+	/**
+	 * Stops solving candidates. Seeds which were already solved stay in the
+	 * queue.
+	 */
+	public synchronized void stop() {
+		if (worker != null) {
+			worker.interrupt();
+			worker = null;
+		}
+	}
+
+	/**
+	 * Takes a winnable seed without waiting. If none are spare, candidates are
+	 * solved on the calling thread until one is proven to be winnable, which
+	 * usually takes a few candidates.
+	 * @return The seed.
+	 */
+	public int next() {
+		Integer seed = poll();
+		if (seed != null) {
+			return seed;
+		}
+		BaronessSolver solver = new BaronessSolver();
+		solver.setTimeLimit(timeLimit);
+		while (true) {
+			int candidate = candidates.nextInt();
+			if (isWinnable(solver, candidate)) {
+				return candidate;
+			}
+		}
+	}
+
+	/**
+	 * Takes a spare winnable seed, if there is one.
+	 * @return The seed, or null if none are spare.
+	 */
+	public Integer poll() {
+		return seeds.poll();
+	}
+
+	/**
+	 * Waits until a spare seed has been solved, without taking it.
+	 * @throws InterruptedException If the thread was interrupted while
+	 *             waiting.
+	 */
+	public void awaitSpare() throws InterruptedException {
+		Integer seed = seeds.takeFirst();
+		seeds.offerFirst(seed); // only dropped if the queue filled up meanwhile, leaving other spares
+	}
+
+	/**
+	 * Takes a winnable seed, waiting for one to be solved if there are none
+	 * to spare.
+	 * @param timeout The most milliseconds to wait.
+	 * @return The seed, or null if none was solved in time.
+	 */
+	public Integer poll(long timeout) {
+		try {
+			return seeds.poll(timeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/**
+	 * @return The number of spare seeds which are solved.
+	 */
+	public int size() {
+		return seeds.size();
+	}
+
+	/**
+	 * @return The most milliseconds spent on each candidate.
+	 */
+	public long getTimeLimit() {
+		return timeLimit;
+	}
+
+	/**
+	 * Solves candidates until the thread is interrupted.
+	 */
+	void fill() {
+		BaronessSolver solver = new BaronessSolver();
+		solver.setTimeLimit(timeLimit);
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				int seed = candidates.nextInt();
+				if (isWinnable(solver, seed)) {
+					seeds.put(seed);
+				}
+			}
+		} catch (InterruptedException e) {
+			// stopped while waiting for room in the queue
+		}
+	}
+
+	/**
+	 * Solves a candidate, or finds its verdict in the cache.
+	 * @param solver The solver to use.
+	 * @param seed The candidate seed.
+	 * @return Whether the deal was proven to be winnable.
+	 */
+	boolean isWinnable(BaronessSolver solver, int seed) {
+		if (cache != null) {
+			return cache.solve(solver, seed).getOutcome() == SolverResult.Outcome.WON;
+		}
+		return solver.solve(BaronessState.fromSeed(seed)).isWon();
+	}
+}
@@ -0,0 +1,538 @@
+/**
+ * BaronessState.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.state;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import krconverse.Baroness;
+import ks.common.model.Card;
+import ks.common.model.Column;
+import ks.common.model.Deck;
+import ks.common.model.Pile;
+
+/**
+ * A compact, immutable snapshot of a game of Baroness.
+ * <p>
+ * Cards are encoded as a single byte (see {@link #encode(Card)}), so a
+ * position is nothing more than the cards left in the deck, the five column
+ * stacks and the number of cards which have been played to the foundation.
+ * States never touch the model elements of a running game, which makes them
+ * cheap enough to create and throw away by the hundred thousand while
+ * searching for a solution.
+ * <p>
+ * Columns which are not changed between two states share the same array, so
+ * the arrays held by a state must never be modified.
+ */
+public final class BaronessState {
+	/** The number of columns in a game of Baroness. */
+	public static final int COLUMNS = 5;
+	/** The number of cards in a game of Baroness. */
+	public static final int CARDS = 52;
+
+	static final byte[] EMPTY = new byte[0]; // shared by every empty column
+
+	static final long[][][] CARD_KEYS = new long[COLUMNS][CARDS][CARDS]; // Zobrist keys by column, height and card
+	static final long[] DECK_KEYS = new long[CARDS + 1]; // Zobrist keys by the number of cards in the deck
+	static final long[][] COLUMN_KEYS = new long[CARDS][CARDS]; // Zobrist keys by height and card, for any column
+
+	static {
+		// fixed seed so that hashes are the same in every run
+		Random random = new Random(0x5EEDBA20L);
+		for (long[][] column : CARD_KEYS) {
+			for (long[] height : column) {
+				for (int card = 0; card < CARDS; card++) {
+					height[card] = random.nextLong();
+				}
+			}
+		}
+		for (int i = 0; i <= CARDS; i++) {
+			DECK_KEYS[i] = random.nextLong();
+		}
+		for (long[] height : COLUMN_KEYS) {
+			for (int card = 0; card < CARDS; card++) {
+				height[card] = random.nextLong();
+			}
+		}
+	}
+
+	final byte[] deck; // cards in the deck, bottom first; shared by all states of a deal
+	final int deckCount; // number of cards still in the deck
+	final byte[][] columns; // cards in each column, bottom first
+	final int foundationCount; // number of cards which have been played
+	final long hash; // Zobrist hash of the position
+
+	/**
+	 * Creates a new state.
+	 * @param deck The cards in the deck, from the bottom to the top.
+	 * @param deckCount The number of cards which are still in the deck.
+	 * @param columns The cards in each column, from the bottom to the top.
+	 * @param foundationCount The number of cards in the foundation.
+	 * @param hash The Zobrist hash of the position.
+	 */
+	BaronessState(byte[] deck, int deckCount, byte[][] columns, int foundationCount, long hash) {
+		this.deck = deck;
+		this.deckCount = deckCount;
+		this.columns = columns;
+		this.foundationCount = foundationCount;
+		this.hash = hash;
+	}
+
+	/**
+	 * Creates a new state, working out its hash from scratch.
+	 * @param deck The cards in the deck, from the bottom to the top.
+	 * @param deckCount The number of cards which are still in the deck.
+	 * @param columns The cards in each column, from the bottom to the top.
+	 * @param foundationCount The number of cards in the foundation.
+	 */
+	BaronessState(byte[] deck, int deckCount, byte[][] columns, int foundationCount) {
+		this(deck, deckCount, columns, foundationCount, hash(deckCount, columns));
+	}
+
+	/**
+	 * @param deckCount The number of cards which are still in the deck.
+	 * @param columns The cards in each column, from the bottom to the top.
+	 * @return The Zobrist hash of the position.
+	 */
+	static long hash(int deckCount, byte[][] columns) {
+		long hash = DECK_KEYS[deckCount];
+		for (int i = 0; i < COLUMNS; i++) {
+			for (int j = 0; j < columns[i].length; j++) {
+				hash ^= CARD_KEYS[i][j][columns[i][j]];
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Creates the starting state for a deal, with every card in the deck.
+	 * @param deck The encoded cards of the deck, from the bottom to the top.
+	 * @return The state before any cards have been dealt.
+	 */
+	public static BaronessState newDeal(byte[] deck) {
+		if (deck == null || deck.length != CARDS) {
+			throw new IllegalArgumentException("A Baroness deal needs exactly " + CARDS + " cards");
+		}
+		byte[][] columns = new byte[COLUMNS][];
+		Arrays.fill(columns, EMPTY);
+		return new BaronessState(deck.clone(), CARDS, columns, 0);
+	}
+
+	/**
+	 * Deals a new game without a window and takes a snapshot of it, so the
+	 * deck is exactly the one a game started with the seed would have.
+	 * @param seed The seed to deal the deck with.
+	 * @return The state before any cards have been dealt.
+	 * @see Baroness#createHeadless(int)
+	 */
+	public static BaronessState fromSeed(int seed) {
+		return fromGame(Baroness.createHeadless(seed));
+	}
+
+	/**
+	 * Takes a snapshot of a running game.
+	 * @param game The game to take the snapshot of.
+	 * @return The state of the game.
+	 */
+	public static BaronessState fromGame(Baroness game) {
+		Deck deck = game.getDeck();
+		Pile foundation = game.getFoundation();
+
+		byte[] deckCards = new byte[deck.count()];
+		for (int i = 0; i < deckCards.length; i++) {
+			deckCards[i] = encode(deck.peek(i));
+		}
+
+		byte[][] columns = new byte[COLUMNS][];
+		for (int i = 0; i < COLUMNS; i++) {
+			Column column = game.getColumn(i);
+			if (column.empty()) {
+				columns[i] = EMPTY;
+			} else {
+				columns[i] = new byte[column.count()];
+				for (int j = 0; j < columns[i].length; j++) {
+					columns[i][j] = encode(column.peek(j));
+				}
+			}
+		}
+
+		return new BaronessState(deckCards, deckCards.length, columns, foundation.count());
+	}
+
+	/**
+	 * Replaces the contents of a running game's model with this state.
+	 * <p>
+	 * Only the number of cards in the foundation is kept by a state, so the
+	 * foundation is rebuilt with the played cards ordered by their encoding.
+	 * Any moves on the game's undo stack no longer apply afterwards.
+	 * @param game The game to update.
+	 */
+	public void applyTo(Baroness game) {
+		Deck deck = game.getDeck();
+		Pile foundation = game.getFoundation();
+		boolean[] inPlay = new boolean[CARDS]; // cards which are not in the foundation
+
+		while (!deck.empty()) {
+			deck.get();
+		}
+		for (int i = 0; i < deckCount; i++) {
+			deck.add(toCard(this.deck[i]));
+			inPlay[this.deck[i]] = true;
+		}
+
+		for (int i = 0; i < COLUMNS; i++) {
+			Column column = game.getColumn(i);
+			while (!column.empty()) {
+				column.get();
+			}
+			for (byte card : columns[i]) {
+				column.add(toCard(card));
+				inPlay[card] = true;
+			}
+		}
+
+		while (!foundation.empty()) {
+			foundation.get();
+		}
+		for (int card = 0; card < CARDS; card++) {
+			if (!inPlay[card]) {
+				foundation.add(toCard((byte) card));
+			}
+		}
+
+		// bring the index and counters in line with the new position
+		TopCardIndex.columnsChanged(game);
+		game.updateScore(getScore() - game.getScoreValue());
+		game.updateNumberCardsLeft(deckCount - game.getNumLeft().getValue());
+	}
+
+	/**
+	 * Writes every valid move in this position into a buffer.
+	 * @param buffer The buffer to write the moves to, with room for at least
+	 *            {@link EncodedMove#MAX_MOVES} moves.
+	 * @return The number of moves written.
+	 * @see EncodedMove#generate(int, int, int, int[])
+	 */
+	public int generateMoves(int[] buffer) {
+		int ranks = 0;
+		int stacked = 0;
+		for (int i = 0; i < COLUMNS; i++) {
+			byte[] cards = columns[i];
+			if (cards.length > 0) {
+				ranks |= rank(cards[cards.length - 1]) << (i << 2);
+				if (cards.length > 1) {
+					stacked |= 1 << i;
+				}
+			}
+		}
+		return EncodedMove.generate(ranks, stacked, deckCount, buffer);
+	}
+
+	/**
+	 * Checks whether a move follows the rules in this position. Unlike
+	 * {@link #generateMoves(int[])}, this also accepts the moves a player can
+	 * make by dragging cards, such as a pair with the higher column first.
+	 * @param move The encoded move.
+	 * @return Whether the move is valid.
+	 */
+	public boolean isValid(int move) {
+		int source = EncodedMove.source(move);
+		int target = EncodedMove.target(move);
+		switch (EncodedMove.type(move)) {
+		case EncodedMove.KING:
+			return source < COLUMNS && getTopRank(source) == 13;
+		case EncodedMove.PAIR:
+			return source < COLUMNS && target < COLUMNS && source != target
+					&& getTopRank(source) != 0 && getTopRank(target) != 0
+					&& getTopRank(source) + getTopRank(target) == 13;
+		case EncodedMove.EMPTY_COLUMN:
+			return source < COLUMNS && target < COLUMNS && columns[source].length > 1
+					&& columns[target].length == 0;
+		default:
+			return move == EncodedMove.encode(EncodedMove.DEAL, 0, 0) && deckCount > 0;
+		}
+	}
+
+	/**
+	 * Makes a move. The move is expected to be valid in this position, which
+	 * is the case for every move written by {@link #generateMoves(int[])}.
+	 * @param move The encoded move to make.
+	 * @return The state after the move has been made.
+	 */
+	public BaronessState apply(int move) {
+		byte[][] next = columns.clone();
+		int source = EncodedMove.source(move);
+		int target = EncodedMove.target(move);
+		long nextHash = hash;
+
+		switch (EncodedMove.type(move)) {
+		case EncodedMove.KING:
+			nextHash ^= topKey(source);
+			next[source] = pop(columns[source]);
+			return new BaronessState(deck, deckCount, next, foundationCount + 1, nextHash);
+		case EncodedMove.PAIR:
+			nextHash ^= topKey(source) ^ topKey(target);
+			next[source] = pop(columns[source]);
+			next[target] = pop(columns[target]);
+			return new BaronessState(deck, deckCount, next, foundationCount + 2, nextHash);
+		case EncodedMove.EMPTY_COLUMN:
+			byte card = columns[source][columns[source].length - 1];
+			nextHash ^= topKey(source) ^ CARD_KEYS[target][0][card];
+			next[target] = new byte[] { card };
+			next[source] = pop(columns[source]);
+			return new BaronessState(deck, deckCount, next, foundationCount, nextHash);
+		default:
+			// deal from right to left, just like the DealCardsMove
+			int dealt = Math.min(COLUMNS, deckCount);
+			for (int i = 0; i < dealt; i++) {
+				int column = COLUMNS - 1 - i;
+				byte[] cards = Arrays.copyOf(columns[column], columns[column].length + 1);
+				cards[cards.length - 1] = deck[deckCount - 1 - i];
+				nextHash ^= CARD_KEYS[column][cards.length - 1][cards[cards.length - 1]];
+				next[column] = cards;
+			}
+			nextHash ^= DECK_KEYS[deckCount] ^ DECK_KEYS[deckCount - dealt];
+			return new BaronessState(deck, deckCount - dealt, next, foundationCount, nextHash);
+		}
+	}
+
+	/**
+	 * @param column The index of a column which is not empty.
+	 * @return The Zobrist key of the column's top card.
+	 */
+	long topKey(int column) {
+		byte[] cards = columns[column];
+		return CARD_KEYS[column][cards.length - 1][cards[cards.length - 1]];
+	}
+
+	/**
+	 * @param cards The cards in a column.
+	 * @return The cards with the top card removed.
+	 */
+	static byte[] pop(byte[] cards) {
+		return cards.length == 1 ? EMPTY : Arrays.copyOf(cards, cards.length - 1);
+	}
+
+	/**
+	 * Returns the Zobrist hash of the position. Hashes are only meant to tell
+	 * apart positions which come from the same deal, since the cards left in
+	 * the deck are only counted.
+	 * @return The hash of the position.
+	 */
+	public long getHash() {
+		return hash;
+	}
+
+	/**
+	 * Returns a hash which is the same for positions that only differ in which
+	 * of their interchangeable columns holds which cards.
+	 * <p>
+	 * Every deal puts a card on the columns from right to left, so while five
+	 * or more cards are left in the deck each column will be dealt a known
+	 * card and no two columns can be swapped. Once fewer cards are left, the
+	 * columns to the left of the last deal are never dealt to again, and any
+	 * card can be moved between them through an empty column, so their
+	 * contents are hashed independently of their place and combined in
+	 * sorted order. For every other position this is the same as
+	 * {@link #getHash()}.
+	 * @return The canonical hash of the position.
+	 */
+	public long getCanonicalHash() {
+		int free = interchangeableColumns(deckCount);
+		if (free < 2) {
+			return hash;
+		}
+
+		long[] keys = new long[free];
+		for (int i = 0; i < free; i++) {
+			for (int j = 0; j < columns[i].length; j++) {
+				keys[i] ^= COLUMN_KEYS[j][columns[i][j]];
+			}
+		}
+		Arrays.sort(keys);
+
+		long canonical = DECK_KEYS[deckCount];
+		for (int i = free; i < COLUMNS; i++) {
+			for (int j = 0; j < columns[i].length; j++) {
+				canonical ^= CARD_KEYS[i][j][columns[i][j]];
+			}
+		}
+		for (long key : keys) {
+			canonical = canonical * 0x9E3779B97F4A7C15L + key;
+		}
+		return canonical;
+	}
+
+	/**
+	 * @param deckCount The number of cards left in the deck.
+	 * @return The number of columns, counting from the left, which will not
+	 *         be dealt any more cards.
+	 */
+	static int interchangeableColumns(int deckCount) {
+		return deckCount >= COLUMNS ? 0 : COLUMNS - deckCount;
+	}
+
+	/**
+	 * @return The number of cards left in the deck.
+	 */
+	public int getDeckCount() {
+		return deckCount;
+	}
+
+	/**
+	 * @param column The index of the column, from left to right.
+	 * @return The number of cards in the column.
+	 */
+	public int getColumnCount(int column) {
+		return columns[column].length;
+	}
+
+	/**
+	 * @param column The index of the column, from left to right.
+	 * @param index The position of the card, counting from the bottom.
+	 * @return The encoded card.
+	 */
+	public byte getCard(int column, int index) {
+		return columns[column][index];
+	}
+
+	/**
+	 * @param index The position of the card in the deck, counting from the
+	 *            bottom, which must be less than {@link #getDeckCount()}.
+	 * @return The encoded card.
+	 */
+	public byte getDeckCard(int index) {
+		return deck[index];
+	}
+
+	/**
+	 * @param column The index of the column, from left to right.
+	 * @return The rank of the top card of the column, or 0 if it is empty.
+	 */
+	public int getTopRank(int column) {
+		byte[] cards = columns[column];
+		return cards.length == 0 ? 0 : rank(cards[cards.length - 1]);
+	}
+
+	/**
+	 * Counts the cards of each rank which have not been played yet, whether
+	 * they are still in the deck or in a column.
+	 * @param counts The array to write the counts to, indexed by rank, with
+	 *            room for at least 14 entries.
+	 */
+	public void countRanks(int[] counts) {
+		Arrays.fill(counts, 0);
+		for (int i = 0; i < deckCount; i++) {
+			counts[rank(deck[i])]++;
+		}
+		for (byte[] cards : columns) {
+			for (byte card : cards) {
+				counts[rank(card)]++;
+			}
+		}
+	}
+
+	/**
+	 * @return The number of cards in the foundation.
+	 */
+	public int getFoundationCount() {
+		return foundationCount;
+	}
+
+	/**
+	 * @return The score, which is the number of cards still in play.
+	 */
+	public int getScore() {
+		return CARDS - foundationCount;
+	}
+
+	/**
+	 * @return Whether every card has been played to the foundation.
+	 */
+	public boolean hasWon() {
+		return foundationCount == CARDS;
+	}
+
+	/**
+	 * Encodes a card as a single byte between 0 and 51.
+	 * @param card The card to encode.
+	 * @return The encoded card.
+	 */
+	public static byte encode(Card card) {
+		return (byte) ((card.getSuit() - Card.CLUBS) * 13 + card.getRank() - 1);
+	}
+
+	/**
+	 * @param card An encoded card.
+	 * @return The rank of the card, from 1 (Ace) to 13 (King).
+	 */
+	public static int rank(byte card) {
+		return card % 13 + 1;
+	}
+
+	/**
+	 * @param card An encoded card.
+	 * @return The suit of the card.
+	 */
+	public static int suit(byte card) {
+		return card / 13 + Card.CLUBS;
+	}
+
+	/**
+	 * @param card An encoded card.
+	 * @return A new card for the model.
+	 */
+	public static Card toCard(byte card) {
+		return new Card(rank(card), suit(card));
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof BaronessState)) {
+			return false;
+		}
+		BaronessState state = (BaronessState) other;
+		if (deckCount != state.deckCount || foundationCount != state.foundationCount) {
+			return false;
+		}
+		for (int i = 0; i < deckCount; i++) {
+			if (deck[i] != state.deck[i]) {
+				return false;
+			}
+		}
+		return Arrays.deepEquals(columns, state.columns);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return (int) (hash ^ hash >>> 32);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("deck=").append(deckCount).append(" foundation=").append(foundationCount);
+		for (int i = 0; i < COLUMNS; i++) {
+			builder.append(" col").append(i + 1).append('=');
+			for (byte card : columns[i]) {
+				builder.append(rank(card)).append(',');
+			}
+		}
+		return builder.toString();
+	}
+}
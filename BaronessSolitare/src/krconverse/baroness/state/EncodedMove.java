@@ -0,0 +1,169 @@
+/**
+ * EncodedMove.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.state;
+
+import ks.common.model.Column;
+
+/**
+ * Encodes the moves of Baroness as small integers, so that moves can be
+ * generated and stored without creating any {@link ks.common.model.Move}
+ * objects.
+ * <p>
+ * An encoded move packs the type of the move into bits 6-7, the source column
+ * into bits 3-5 and the target column into bits 0-2, so every move fits into a
+ * single byte.
+ */
+public final class EncodedMove {
+	/** Plays a King from the source column, like a {@link krconverse.baroness.move.PlayKingMove}. */
+	public static final int KING = 0;
+	/** Plays the top cards of the source and target columns, like a {@link krconverse.baroness.move.PlayPairMove}. */
+	public static final int PAIR = 1;
+	/** Moves the top card of the source column to the empty target column, like a {@link krconverse.baroness.move.MoveCardToEmptyColumnMove}. */
+	public static final int EMPTY_COLUMN = 2;
+	/** Deals cards from the deck to the columns, like a {@link krconverse.baroness.move.DealCardsMove}. */
+	public static final int DEAL = 3;
+
+	/** The largest number of moves which can be available in any position. */
+	public static final int MAX_MOVES = 32;
+
+	/**
+	 * Encoded moves are only used through the static methods.
+	 */
+	private EncodedMove() {
+	}
+
+	/**
+	 * @param type The type of the move.
+	 * @param source The index of the source column, or 0 for a deal.
+	 * @param target The index of the target column, or 0 if there is none.
+	 * @return The encoded move.
+	 */
+	public static int encode(int type, int source, int target) {
+		return type << 6 | source << 3 | target;
+	}
+
+	/**
+	 * @param move An encoded move.
+	 * @return The type of the move.
+	 */
+	public static int type(int move) {
+		return move >>> 6;
+	}
+
+	/**
+	 * @param move An encoded move.
+	 * @return The index of the source column.
+	 */
+	public static int source(int move) {
+		return move >>> 3 & 7;
+	}
+
+	/**
+	 * @param move An encoded move.
+	 * @return The index of the target column.
+	 */
+	public static int target(int move) {
+		return move & 7;
+	}
+
+	/**
+	 * Finds the index of a column, for encoding a move made on a game's model.
+	 * @param columns The columns of the game, from left to right.
+	 * @param column The column to look for.
+	 * @return The index of the column.
+	 * @throws IllegalArgumentException If the column is not one of the game's.
+	 */
+	public static int indexOf(Column[] columns, Column column) {
+		for (int i = 0; i < columns.length; i++) {
+			if (columns[i] == column) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Column " + column + " is not part of the game");
+	}
+
+	/**
+	 * Writes every valid move for a position into a buffer.
+	 * <p>
+	 * Moves are written in the same order that
+	 * {@link krconverse.Baroness#availableMoves()} returns them: Kings, pairs,
+	 * moves to empty columns and finally the deal. A pair is only written once,
+	 * with the lower column as the source.
+	 * @param ranks The rank of the top card of each column, packed into four
+	 *            bits per column starting with the first column in the lowest
+	 *            bits, with 0 for an empty column.
+	 * @param stacked A bit mask of the columns which hold more than one card.
+	 * @param deckCount The number of cards left in the deck.
+	 * @param buffer The buffer to write the moves to, which must have room for
+	 *            at least {@link #MAX_MOVES} moves.
+	 * @return The number of moves written to the buffer.
+	 */
+	public static int generate(int ranks, int stacked, int deckCount, int[] buffer) {
+		int count = 0;
+		int empty = 0; // bit mask of the empty columns
+
+		// play any Kings on the board
+		for (int i = 0; i < BaronessState.COLUMNS; i++) {
+			int rank = ranks >>> (i << 2) & 15;
+			if (rank == 13) {
+				buffer[count++] = encode(KING, i, 0);
+			} else if (rank == 0) {
+				empty |= 1 << i;
+			}
+		}
+
+		// play any pairs, never pairing a column with itself
+		for (int i = 0; i < BaronessState.COLUMNS - 1; i++) {
+			int rank = ranks >>> (i << 2) & 15;
+			if (rank == 0 || rank == 13) {
+				continue;
+			}
+			for (int j = i + 1; j < BaronessState.COLUMNS; j++) {
+				if ((ranks >>> (j << 2) & 15) + rank == 13) {
+					buffer[count++] = encode(PAIR, i, j);
+				}
+			}
+		}
+
+		// move cards from stacked columns to empty ones
+		if (empty != 0 && stacked != 0) {
+			for (int i = 0; i < BaronessState.COLUMNS; i++) {
+				if ((stacked & 1 << i) == 0) {
+					continue;
+				}
+				for (int j = 0; j < BaronessState.COLUMNS; j++) {
+					if ((empty & 1 << j) != 0) {
+						buffer[count++] = encode(EMPTY_COLUMN, i, j);
+					}
+				}
+			}
+		}
+
+		// deal more cards
+		if (deckCount > 0) {
+			buffer[count++] = encode(DEAL, 0, 0);
+		}
+
+		return count;
+	}
+
+	/**
+	 * @param move An encoded move.
+	 * @return A readable description of the move.
+	 */
+	public static String toString(int move) {
+		switch (type(move)) {
+		case KING:
+			return "king(col" + (source(move) + 1) + ")";
+		case PAIR:
+			return "pair(col" + (source(move) + 1) + ",col" + (target(move) + 1) + ")";
+		case EMPTY_COLUMN:
+			return "move(col" + (source(move) + 1) + "->col" + (target(move) + 1) + ")";
+		default:
+			return "deal";
+		}
+	}
+}
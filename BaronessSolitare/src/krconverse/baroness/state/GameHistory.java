@@ -0,0 +1,149 @@
+/**
+ * GameHistory.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.state;
+
+import java.util.Arrays;
+
+/**
+ * The moves of a game, which can be stepped through backwards and forwards or
+ * jumped to any point.
+ * <p>
+ * Moves are kept as a byte each, and a snapshot of the position is kept after
+ * every {@link #CHECKPOINT_INTERVAL} moves. Any point in the game is reached
+ * from the snapshot before it by replaying fewer than that many moves, so a
+ * jump takes the same time however far it goes. Moves which were undone are
+ * kept until a different move is made in their place, so they can be redone.
+ */
+public class GameHistory {
+	/** The number of moves between snapshots. */
+	public static final int CHECKPOINT_INTERVAL = 8;
+
+	byte[] moves = new byte[64]; // every move of the game, including undone ones
+	int size; // number of moves, including undone ones
+	int position; // number of moves which have not been undone
+	BaronessState[] snapshots = new BaronessState[8]; // positions after each multiple of the interval
+	BaronessState state; // position after the moves which have not been undone
+
+	/**
+	 * Creates a new history.
+	 * @param start The position the game starts in.
+	 */
+	public GameHistory(BaronessState start) {
+		this.snapshots[0] = start;
+		this.state = start;
+	}
+
+	/**
+	 * Records a move made from the current position. If it is the move which
+	 * was undone last, the moves after it can still be redone; otherwise they
+	 * are forgotten.
+	 * @param move The encoded move.
+	 */
+	public void record(int move) {
+		if (position < size && (moves[position] & 0xFF) == move) {
+			jumpTo(position + 1);
+			return;
+		}
+
+		if (position == moves.length) {
+			moves = Arrays.copyOf(moves, moves.length * 2);
+		}
+		moves[position++] = (byte) move;
+		size = position;
+		state = state.apply(move);
+		if (position % CHECKPOINT_INTERVAL == 0) {
+			int checkpoint = position / CHECKPOINT_INTERVAL;
+			if (checkpoint == snapshots.length) {
+				snapshots = Arrays.copyOf(snapshots, snapshots.length * 2);
+			}
+			snapshots[checkpoint] = state;
+		}
+	}
+
+	/**
+	 * Moves to another point in the game.
+	 * @param index The number of moves from the start, between 0 and
+	 *            {@link #getSize()}.
+	 * @return The position at that point.
+	 * @throws IndexOutOfBoundsException If the point is not part of the game.
+	 */
+	public BaronessState jumpTo(int index) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Move " + index + " of " + size);
+		}
+		BaronessState replayed = snapshots[index / CHECKPOINT_INTERVAL];
+		for (int i = index - index % CHECKPOINT_INTERVAL; i < index; i++) {
+			replayed = replayed.apply(moves[i] & 0xFF);
+		}
+		position = index;
+		state = replayed;
+		return state;
+	}
+
+	/**
+	 * Takes back the last move.
+	 * @return The position before the move, or null if no moves were made.
+	 */
+	public BaronessState undo() {
+		return canUndo() ? jumpTo(position - 1) : null;
+	}
+
+	/**
+	 * Makes the last move which was taken back again.
+	 * @return The position after the move, or null if there is no move to
+	 *         redo.
+	 */
+	public BaronessState redo() {
+		return canRedo() ? jumpTo(position + 1) : null;
+	}
+
+	/**
+	 * @return Whether there is a move to undo.
+	 */
+	public boolean canUndo() {
+		return position > 0;
+	}
+
+	/**
+	 * @return Whether there is a move to redo.
+	 */
+	public boolean canRedo() {
+		return position < size;
+	}
+
+	/**
+	 * @param index The number of moves made before the move.
+	 * @return The encoded move.
+	 * @throws IndexOutOfBoundsException If there is no such move.
+	 */
+	public int getMove(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Move " + index + " of " + size);
+		}
+		return moves[index] & 0xFF;
+	}
+
+	/**
+	 * @return The number of moves which have not been undone.
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	/**
+	 * @return The number of moves, including those which can be redone.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return The position after the moves which have not been undone.
+	 */
+	public BaronessState getState() {
+		return state;
+	}
+}
@@ -0,0 +1,181 @@
+/**
+ * TopCardIndex.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.state;
+
+import krconverse.Baroness;
+import ks.common.games.Solitaire;
+import ks.common.model.Column;
+
+/**
+ * Keeps track of the ranks of the cards on top of a game's columns.
+ * <p>
+ * Besides the rank showing on each column, the index keeps a bit mask of the
+ * columns showing each rank, so that Kings and pairs which add up to thirteen
+ * can be found with a few bit operations instead of looking at the cards. The
+ * moves tell the index whenever they change a column (see
+ * {@link #columnChanged(Solitaire, Column)}), so it only ever updates the
+ * columns that changed.
+ */
+public class TopCardIndex {
+	final Column[] columns;
+	final int[] rankColumns = new int[14]; // bit mask of the columns showing each rank, with 0 for empty
+	final int[] columnRanks = new int[BaronessState.COLUMNS]; // rank showing on each column
+	int stacked; // bit mask of the columns holding more than one card
+
+	/**
+	 * Creates a new index of the columns' top cards.
+	 * @param columns The columns of the game, from left to right.
+	 */
+	public TopCardIndex(Column[] columns) {
+		this.columns = columns;
+		refresh();
+	}
+
+	/**
+	 * Tells a game that one of its columns has changed, which updates its
+	 * index and marks the column to be redrawn. Games other than Baroness are
+	 * ignored.
+	 * @param game The game the column belongs to.
+	 * @param column The column which has changed.
+	 * @see Baroness#columnChanged(Column)
+	 */
+	public static void columnChanged(Solitaire game, Column column) {
+		if (game instanceof Baroness) {
+			((Baroness) game).columnChanged(column);
+		}
+	}
+
+	/**
+	 * Tells a game that all of its columns may have changed. Games other than
+	 * Baroness are ignored.
+	 * @param game The game whose columns have changed.
+	 * @see Baroness#columnsChanged()
+	 */
+	public static void columnsChanged(Solitaire game) {
+		if (game instanceof Baroness) {
+			((Baroness) game).columnsChanged();
+		}
+	}
+
+	/**
+	 * Looks at the top card of every column again.
+	 */
+	public void refresh() {
+		rankColumns[0] = 0;
+		for (int i = 0; i < columns.length; i++) {
+			columnRanks[i] = 0;
+			rankColumns[0] |= 1 << i;
+		}
+		for (int i = 1; i < rankColumns.length; i++) {
+			rankColumns[i] = 0;
+		}
+		stacked = 0;
+		for (int i = 0; i < columns.length; i++) {
+			update(i);
+		}
+	}
+
+	/**
+	 * Looks at the top card of a column again.
+	 * @param column The column which has changed.
+	 */
+	public void update(Column column) {
+		for (int i = 0; i < columns.length; i++) {
+			if (columns[i] == column) {
+				update(i);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Looks at the top card of a column again.
+	 * @param column The index of the column which has changed.
+	 */
+	public void update(int column) {
+		int bit = 1 << column;
+		int count = columns[column].count();
+		int rank = count == 0 ? 0 : columns[column].peek().getRank();
+
+		rankColumns[columnRanks[column]] &= ~bit;
+		rankColumns[rank] |= bit;
+		columnRanks[column] = rank;
+		if (count > 1) {
+			stacked |= bit;
+		} else {
+			stacked &= ~bit;
+		}
+	}
+
+	/**
+	 * @param column The index of the column, from left to right.
+	 * @return The rank of the card on top of the column, or 0 if it is empty.
+	 */
+	public int getRank(int column) {
+		return columnRanks[column];
+	}
+
+	/**
+	 * @param rank A rank, or 0 for empty columns.
+	 * @return A bit mask of the columns showing the rank.
+	 */
+	public int getColumns(int rank) {
+		return rankColumns[rank];
+	}
+
+	/**
+	 * @return A bit mask of the columns holding more than one card.
+	 */
+	public int getStacked() {
+		return stacked;
+	}
+
+	/**
+	 * Writes every valid move into a buffer, in the same order as
+	 * {@link EncodedMove#generate(int, int, int, int[])}.
+	 * @param deckCount The number of cards left in the deck.
+	 * @param buffer The buffer to write the moves to, with room for at least
+	 *            {@link EncodedMove#MAX_MOVES} moves.
+	 * @return The number of moves written.
+	 */
+	public int generate(int deckCount, int[] buffer) {
+		int count = 0;
+
+		// play any Kings
+		for (int kings = rankColumns[13]; kings != 0; kings &= kings - 1) {
+			buffer[count++] = EncodedMove.encode(EncodedMove.KING, Integer.numberOfTrailingZeros(kings), 0);
+		}
+
+		// pair each column with the columns to its right showing the complement
+		for (int i = 0; i < columns.length - 1; i++) {
+			int rank = columnRanks[i];
+			if (rank == 0 || rank == 13) {
+				continue;
+			}
+			for (int pairs = rankColumns[13 - rank] & -(2 << i); pairs != 0; pairs &= pairs - 1) {
+				buffer[count++] = EncodedMove.encode(EncodedMove.PAIR, i, Integer.numberOfTrailingZeros(pairs));
+			}
+		}
+
+		// move cards from stacked columns to empty ones
+		int empty = rankColumns[0];
+		if (empty != 0) {
+			for (int sources = stacked; sources != 0; sources &= sources - 1) {
+				int source = Integer.numberOfTrailingZeros(sources);
+				for (int targets = empty; targets != 0; targets &= targets - 1) {
+					buffer[count++] = EncodedMove.encode(EncodedMove.EMPTY_COLUMN, source, Integer.numberOfTrailingZeros(targets));
+				}
+			}
+		}
+
+		// deal more cards
+		if (deckCount > 0) {
+			buffer[count++] = EncodedMove.encode(EncodedMove.DEAL, 0, 0);
+		}
+
+		return count;
+	}
+}
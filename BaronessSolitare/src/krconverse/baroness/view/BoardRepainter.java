@@ -0,0 +1,155 @@
+/**
+ * BoardRepainter.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.view;
+
+import java.awt.Component;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.Timer;
+
+import ks.common.view.Widget;
+
+/**
+ * Repaints only the widgets of a Baroness board which have changed.
+ * <p>
+ * Moves mark the parts of the board they touch as dirty, and the marks are
+ * collected until the next frame, when each dirty widget is redrawn once. A
+ * deal which changes five columns, the deck and the cards left counter
+ * redraws those seven widgets rather than the whole board, and any number of
+ * moves made within one frame are drawn together.
+ * <p>
+ * Like the rest of the views, a repainter is only used from the event
+ * dispatch thread.
+ */
+public class BoardRepainter implements ActionListener {
+	/** The time between frames, in milliseconds. */
+	public static final int FRAME_MILLIS = 16;
+
+	/** The first column, shifted left by a column's index for the others. */
+	public static final int COLUMN = 1;
+	/** The deck. */
+	public static final int DECK = 1 << 5;
+	/** The foundation pile. */
+	public static final int FOUNDATION = 1 << 6;
+	/** The score. */
+	public static final int SCORE = 1 << 7;
+	/** The counter of cards left in the deck. */
+	public static final int CARDS_LEFT = 1 << 8;
+	/** Every widget on the board. */
+	public static final int ALL = (1 << 9) - 1;
+
+	final Component container; // component the widgets are drawn on
+	final Widget[] widgets; // widgets in the order of their bits
+	final Timer timer; // fires once at the end of each frame with changes
+	int dirty; // bit mask of the widgets to redraw
+	Rectangle area; // other area of the container to repaint, or null
+	int redraws; // number of widgets redrawn so far
+
+	/**
+	 * Creates a new repainter for a board.
+	 * @param container The component that the widgets are drawn on.
+	 * @param columns The views of the columns, from left to right.
+	 * @param deck The view of the deck.
+	 * @param foundation The view of the foundation.
+	 * @param score The view of the score.
+	 * @param cardsLeft The view of the cards left counter.
+	 */
+	public BoardRepainter(Component container, Widget[] columns, Widget deck, Widget foundation, Widget score,
+			Widget cardsLeft) {
+		this.container = container;
+		this.widgets = new Widget[9];
+		System.arraycopy(columns, 0, widgets, 0, 5);
+		widgets[5] = deck;
+		widgets[6] = foundation;
+		widgets[7] = score;
+		widgets[8] = cardsLeft;
+
+		this.timer = new Timer(FRAME_MILLIS, this);
+		timer.setRepeats(false);
+	}
+
+	/**
+	 * Marks parts of the board to be redrawn with the next frame.
+	 * @param regions A bit mask of the widgets which changed.
+	 */
+	public void markDirty(int regions) {
+		dirty |= regions & ALL;
+		schedule();
+	}
+
+	/**
+	 * Marks a column to be redrawn with the next frame.
+	 * @param column The index of the column, from 0 on the left.
+	 */
+	public void columnChanged(int column) {
+		markDirty(COLUMN << column);
+	}
+
+	/**
+	 * Marks the area a widget covers to be repainted with the next frame, such
+	 * as where a dragged card was last drawn.
+	 * @param widget The widget.
+	 */
+	public void widgetMoved(Widget widget) {
+		Rectangle bounds = new Rectangle(widget.getX(), widget.getY(), widget.getWidth(), widget.getHeight());
+		area = area == null ? bounds : area.union(bounds);
+		schedule();
+	}
+
+	/**
+	 * Starts the timer for the next frame, unless it is already running.
+	 */
+	void schedule() {
+		if (!timer.isRunning()) {
+			timer.start();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
+	 */
+	@Override
+	public void actionPerformed(ActionEvent event) {
+		flush();
+	}
+
+	/**
+	 * Redraws every dirty widget right away.
+	 */
+	public void flush() {
+		timer.stop();
+		int regions = dirty;
+		dirty = 0;
+		while (regions != 0) {
+			int bit = Integer.numberOfTrailingZeros(regions);
+			regions &= regions - 1;
+			if (widgets[bit] != null) {
+				widgets[bit].redraw();
+				redraws++;
+			}
+		}
+		if (area != null) {
+			container.repaint(area.x, area.y, area.width, area.height);
+			area = null;
+		}
+	}
+
+	/**
+	 * @return A bit mask of the widgets waiting to be redrawn.
+	 */
+	public int getDirty() {
+		return dirty;
+	}
+
+	/**
+	 * @return The number of widgets redrawn so far.
+	 */
+	public int getRedraws() {
+		return redraws;
+	}
+}
@@ -5,10 +5,33 @@
  */
 package krconverse;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Test;
 
 import junit.framework.TestCase;
+import krconverse.baroness.event.GameEvent;
+import krconverse.baroness.event.GameEventBus;
+import krconverse.baroness.event.GameEventListener;
+import krconverse.baroness.log.MoveLogReplay;
+import krconverse.baroness.log.MoveLogWriter;
+import krconverse.baroness.move.DealCardsMove;
+import krconverse.baroness.move.MoveCardToEmptyColumnMove;
+import krconverse.baroness.move.PlayKingMove;
+import krconverse.baroness.solver.BaronessSolver;
+import krconverse.baroness.solver.WinnableSeedQueue;
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
 import ks.common.games.SolitaireSolver;
+import ks.common.model.Column;
+import ks.common.model.Deck;
+import ks.common.model.Move;
+import ks.common.model.Pile;
 import ks.launcher.Main;
 
 /**
@@ -33,6 +56,236 @@ public class BaronessTest extends TestCase {
 		game.dispose();
 	}
 
+	/**
+	 * Test method for {@link krconverse.Baroness#availableMoves(int[])}.
+	 */
+	@Test
+	public void testAvailableMoves() {
+		Baroness game = Baroness.createHeadless(Deck.OrderBySuit);
+		int[] buffer = new int[EncodedMove.MAX_MOVES];
+
+		// only the deal is available at the start
+		assertEquals(1, game.availableMoves(buffer));
+		assertEquals(EncodedMove.DEAL, EncodedMove.type(buffer[0]));
+		Move deal = game.createMove(buffer[0]);
+		assertTrue(deal instanceof DealCardsMove);
+		assertTrue(deal.doMove(game));
+
+		// then the King can be played as well
+		assertEquals(2, game.availableMoves(buffer));
+		assertEquals(EncodedMove.encode(EncodedMove.KING, 4, 0), buffer[0]);
+		List<Move> moves = Collections.list(game.availableMoves());
+		assertEquals(2, moves.size());
+		assertTrue(moves.get(0) instanceof PlayKingMove);
+		assertTrue(moves.get(0).valid(game));
+		assertTrue(moves.get(1) instanceof DealCardsMove);
+
+		deal.undo(game);
+	}
+
+	/**
+	 * Test method for {@link krconverse.Baroness#createHeadless(int)}.
+	 */
+	@Test
+	public void testCreateHeadless() {
+		Baroness game = Baroness.createHeadless(Deck.OrderBySuit);
+		assertEquals(52, game.getScoreValue());
+		assertEquals(52, game.getNumLeft().getValue());
+		assertNull(game.getDeckView());
+
+		// the moves work without any views
+		Deck deck = (Deck) game.getModelElement("deck");
+		Column[] columns = new Column[5];
+		for (int i = 0; i < 5; i++) {
+			columns[i] = (Column) game.getModelElement("col" + (i + 1));
+		}
+		Pile foundation = (Pile) game.getModelElement("foundation");
+
+		DealCardsMove deal = new DealCardsMove(deck, columns);
+		assertTrue(deal.doMove(game));
+		PlayKingMove king = new PlayKingMove(columns[4], foundation);
+		assertTrue(king.doMove(game));
+		assertEquals(51, game.getScoreValue());
+		assertEquals(47, game.getNumLeft().getValue());
+
+		assertTrue(king.undo(game));
+		assertTrue(deal.undo(game));
+		assertEquals(52, deck.count());
+		assertEquals(52, game.getScoreValue());
+	}
+
+	/**
+	 * Test method for {@link krconverse.Baroness#jumpTo(int)}.
+	 */
+	@Test
+	public void testHistory() throws IOException {
+		Baroness game = Baroness.createHeadless(2115290114);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		MoveLogWriter log = new MoveLogWriter(bytes, game.getDealtSeed());
+		game.setMoveLog(log);
+
+		int[] solution = new BaronessSolver().solve(game).getMoves();
+		BaronessState[] states = new BaronessState[solution.length + 1];
+		states[0] = BaronessState.fromGame(game);
+		for (int i = 0; i < solution.length; i++) {
+			Move move = game.createMove(solution[i]);
+			assertTrue(move.doMove(game));
+			game.pushMove(move);
+			states[i + 1] = BaronessState.fromGame(game);
+			assertEquals(states[i + 1], game.getHistory().getState());
+		}
+		assertTrue(game.hasWon());
+
+		// undoing every move, deals included, restores each position exactly
+		for (int i = solution.length; i > 0; i--) {
+			assertTrue(game.undoMove());
+			assertEquals(states[i - 1], BaronessState.fromGame(game));
+		}
+		assertTrue(game.redoMove());
+		assertEquals(states[1], BaronessState.fromGame(game));
+
+		// jump around, and keep undoing and redoing after a jump
+		assertTrue(game.jumpTo(solution.length));
+		assertTrue(game.hasWon());
+		assertTrue(game.jumpTo(17));
+		assertEquals(states[17], BaronessState.fromGame(game));
+		assertTrue(game.undoMove());
+		assertEquals(states[16], BaronessState.fromGame(game));
+		assertTrue(game.redoMove());
+		assertTrue(game.redoMove());
+		assertEquals(states[18], BaronessState.fromGame(game));
+
+		// the log stands for the same game
+		log.close();
+		assertEquals(states[18], MoveLogReplay.replay(new ByteArrayInputStream(bytes.toByteArray())));
+	}
+
+	/**
+	 * Test method for {@link krconverse.Baroness#setEventBus(krconverse.baroness.event.GameEventBus, int)}.
+	 */
+	@Test
+	public void testEvents() {
+		Baroness game = Baroness.createHeadless(2115290114);
+		GameEventBus bus = new GameEventBus();
+		final List<Long> events = new ArrayList<Long>();
+		bus.subscribe(new GameEventListener() {
+			@Override
+			public void eventsPublished(long[] batch, int offset, int count) {
+				for (int i = offset; i < offset + count; i++) {
+					events.add(batch[i]);
+				}
+			}
+		});
+		game.setEventBus(bus, 7);
+
+		int[] solution = new BaronessSolver().solve(game).getMoves();
+		Move deal = game.createMove(solution[0]);
+		assertTrue(deal.doMove(game));
+		game.pushMove(deal);
+		assertTrue(game.undoMove());
+		for (int move : solution) {
+			Move next = game.createMove(move);
+			assertTrue(next.doMove(game));
+			game.pushMove(next);
+		}
+		game.jumpTo(3);
+		bus.drain();
+
+		// a deal, its undo, the whole game, the win and the jump
+		assertEquals(solution.length + 4, events.size());
+		assertEquals(GameEvent.DEAL, GameEvent.type(events.get(0)));
+		assertEquals(7, GameEvent.game(events.get(0)));
+		assertEquals(47, GameEvent.cardsLeft(events.get(0)));
+		assertEquals(GameEvent.UNDO, GameEvent.type(events.get(1)));
+		assertEquals(52, GameEvent.cardsLeft(events.get(1)));
+		assertEquals(0, GameEvent.position(events.get(1)));
+		long last = events.get(solution.length + 1);
+		assertEquals(GameEvent.MOVE, GameEvent.type(last));
+		assertEquals(solution[solution.length - 1], GameEvent.move(last));
+		assertEquals(GameEvent.WON, GameEvent.type(events.get(solution.length + 2)));
+		assertEquals(0, GameEvent.score(events.get(solution.length + 2)));
+		assertEquals(GameEvent.JUMP, GameEvent.type(events.get(solution.length + 3)));
+		assertEquals(3, GameEvent.position(events.get(solution.length + 3)));
+	}
+
+	/**
+	 * Test method for {@link krconverse.Baroness#getColumns()}.
+	 */
+	@Test
+	public void testModelAccessors() {
+		Baroness game = Baroness.createHeadless(Deck.OrderBySuit);
+
+		// the accessors return the same elements which are registered by name
+		assertSame(game.getModelElement("deck"), game.getDeck());
+		assertSame(game.getModelElement("foundation"), game.getFoundation());
+		assertEquals(5, game.getColumns().length);
+		for (int i = 0; i < 5; i++) {
+			assertSame(game.getModelElement("col" + (i + 1)), game.getColumn(i));
+			assertSame(game.getColumn(i), game.getColumns()[i]);
+		}
+	}
+
+	/**
+	 * Test method for {@link krconverse.Baroness#setMoveLog(krconverse.baroness.log.MoveLogWriter)}.
+	 */
+	@Test
+	public void testMoveLog() throws IOException {
+		Baroness game = Baroness.createHeadless(Deck.OrderBySuit);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		MoveLogWriter log = new MoveLogWriter(bytes, game.getDealtSeed());
+		game.setMoveLog(log);
+
+		// make moves the same way the controllers do
+		Column[] columns = new Column[5];
+		for (int i = 0; i < 5; i++) {
+			columns[i] = (Column) game.getModelElement("col" + (i + 1));
+		}
+		Move deal = game.createMove(EncodedMove.encode(EncodedMove.DEAL, 0, 0));
+		assertTrue(deal.doMove(game));
+		game.pushMove(deal);
+		Move king = game.createMove(EncodedMove.encode(EncodedMove.KING, 4, 0));
+		assertTrue(king.doMove(game));
+		game.pushMove(king);
+		deal = game.createMove(EncodedMove.encode(EncodedMove.DEAL, 0, 0));
+		assertTrue(deal.doMove(game));
+		game.pushMove(deal);
+		Move pair = game.createMove(EncodedMove.encode(EncodedMove.PAIR, 1, 4));
+		assertTrue(pair.doMove(game));
+		game.pushMove(pair);
+
+		// drag the top card of the first column to the empty one, then undo it
+		Move drag = new MoveCardToEmptyColumnMove(columns[0], columns[4], columns[0].get());
+		assertTrue(drag.doMove(game));
+		game.pushMove(drag);
+		assertEquals(EncodedMove.encode(EncodedMove.EMPTY_COLUMN, 0, 4), game.encodeMove(drag));
+		assertTrue(game.undoMove());
+		assertEquals(6, log.getRecords());
+
+		log.close();
+		BaronessState replayed = MoveLogReplay.replay(new ByteArrayInputStream(bytes.toByteArray()));
+		assertEquals(BaronessState.fromGame(game), replayed);
+	}
+
+	/**
+	 * Test method for {@link krconverse.Baroness#setWinnableSeeds(krconverse.baroness.solver.WinnableSeedQueue)}.
+	 */
+	@Test
+	public void testWinnableSeeds() throws InterruptedException {
+		WinnableSeedQueue seeds = new WinnableSeedQueue(1, 200, 0);
+		seeds.start();
+		seeds.awaitSpare();
+
+		Baroness game = new Baroness();
+		game.setWinnableSeeds(seeds);
+		Main.generateWindow(game, Deck.OrderBySuit);
+		seeds.stop();
+
+		// the game was dealt from a winnable seed rather than its own
+		assertTrue(game.getDealtSeed() != Deck.OrderBySuit);
+		assertTrue(new BaronessSolver().solve(game).isWon());
+		game.dispose();
+	}
+
 	/**
 	 * Test method for {@link krconverse.Baroness#Baroness()}.
 	 */
@@ -0,0 +1,138 @@
+/**
+ * GameEventBusTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * Test class for {@link krconverse.baroness.event.GameEventBus}.
+ */
+public class GameEventBusTest extends TestCase {
+
+	/**
+	 * A listener which keeps every event it is handed.
+	 */
+	static class Recorder implements GameEventListener {
+		final List<Long> events = new ArrayList<Long>();
+		int batches;
+
+		/* (non-Javadoc)
+		 * @see krconverse.baroness.event.GameEventListener#eventsPublished(long[], int, int)
+		 */
+		@Override
+		public synchronized void eventsPublished(long[] events, int offset, int count) {
+			for (int i = offset; i < offset + count; i++) {
+				this.events.add(events[i]);
+			}
+			batches++;
+		}
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.event.GameEvent#encode(int, int, int, int, int)}.
+	 */
+	@Test
+	public void testEncode() {
+		int pair = EncodedMove.encode(EncodedMove.PAIR, 1, 4);
+		long event = GameEvent.encode(GameEvent.MOVE, pair, 50, 47, 300);
+		assertEquals(GameEvent.MOVE, GameEvent.type(event));
+		assertEquals(pair, GameEvent.move(event));
+		assertEquals(50, GameEvent.score(event));
+		assertEquals(47, GameEvent.cardsLeft(event));
+		assertEquals(300, GameEvent.position(event));
+		assertEquals("pair(col2,col5) score=50 left=47 at=300", GameEvent.toString(event));
+		assertEquals(0, GameEvent.game(event));
+
+		// the games sharing a bus are told apart
+		event = GameEvent.encode(65535, GameEvent.WON, pair, 0, 0, 300);
+		assertEquals(65535, GameEvent.game(event));
+		assertEquals(GameEvent.WON, GameEvent.type(event));
+		assertEquals(pair, GameEvent.move(event));
+		assertEquals(300, GameEvent.position(event));
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.event.GameEventBus#drain()}.
+	 */
+	@Test
+	public void testDrain() {
+		GameEventBus bus = new GameEventBus(1000);
+		bus.publish(GameEvent.encode(GameEvent.DEAL, 0xC0, 52, 47, 1)); // before anyone listened
+		Recorder first = new Recorder();
+		Recorder second = new Recorder();
+		bus.subscribe(first);
+		GameEventBus.Subscription subscription = bus.subscribe(second);
+
+		for (int i = 0; i < 600; i++) {
+			bus.publish(GameEvent.encode(GameEvent.MOVE, 0, 0, 0, i));
+		}
+		assertEquals(600, subscription.getBacklog());
+		assertEquals(1200, bus.drain());
+		assertEquals(0, bus.drain());
+
+		// in order, in batches, to each listener
+		assertEquals(600, first.events.size());
+		assertEquals(3, first.batches);
+		for (int i = 0; i < 600; i++) {
+			assertEquals(i, GameEvent.position(first.events.get(i)));
+			assertEquals(first.events.get(i), second.events.get(i));
+		}
+
+		subscription.cancel();
+		bus.publish(0);
+		assertEquals(1, bus.drain());
+		assertEquals(601, first.events.size());
+		assertEquals(600, second.events.size());
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.event.GameEventBus.Subscription#getMissed()}.
+	 */
+	@Test
+	public void testOverrun() {
+		GameEventBus bus = new GameEventBus(64);
+		Recorder recorder = new Recorder();
+		GameEventBus.Subscription subscription = bus.subscribe(recorder);
+
+		// the publisher never waits, so the oldest events are lost, along
+		// with the slot it would write next
+		for (int i = 0; i < 100; i++) {
+			bus.publish(GameEvent.encode(GameEvent.MOVE, 0, 0, 0, i));
+		}
+		bus.drain();
+		assertEquals(37, subscription.getMissed());
+		assertEquals(63, recorder.events.size());
+		assertEquals(37, GameEvent.position(recorder.events.get(0)));
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.event.GameEventBus#start(long)}.
+	 */
+	@Test
+	public void testStart() throws InterruptedException {
+		GameEventBus bus = new GameEventBus(1 << 16);
+		Recorder recorder = new Recorder();
+		GameEventBus.Subscription subscription = bus.subscribe(recorder);
+		bus.start(1);
+		for (int i = 0; i < 50000; i++) {
+			bus.publish(GameEvent.encode(GameEvent.MOVE, 0, 0, 0, i));
+		}
+		bus.stop();
+
+		// every event arrived in order, drained off the publishing thread
+		assertEquals(0, subscription.getMissed());
+		assertEquals(50000, recorder.events.size());
+		for (int i = 0; i < 50000; i++) {
+			assertEquals(i & 0xFFFF, GameEvent.position(recorder.events.get(i)));
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/**
+ * MoveLogReaderTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * Test class for {@link krconverse.baroness.log.MoveLogReader}
+ */
+public class MoveLogReaderTest extends TestCase {
+
+	/**
+	 * Test that records are read back as they were written.
+	 */
+	@Test
+	public void testNext() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		MoveLogWriter writer = new MoveLogWriter(bytes, -12345);
+		writer.write(EncodedMove.encode(EncodedMove.DEAL, 0, 0));
+		writer.write(EncodedMove.encode(EncodedMove.PAIR, 4, 1));
+		writer.undo();
+		writer.close();
+		assertEquals(3, writer.getRecords());
+
+		// nine bytes of header and a byte for each record
+		assertEquals(12, bytes.size());
+
+		MoveLogReader reader = new MoveLogReader(new ByteArrayInputStream(bytes.toByteArray()));
+		assertEquals(-12345, reader.getSeed());
+		assertEquals(EncodedMove.encode(EncodedMove.DEAL, 0, 0), reader.next());
+		assertEquals(EncodedMove.encode(EncodedMove.PAIR, 4, 1), reader.next());
+		assertEquals(MoveLogWriter.UNDO, reader.next());
+		assertEquals(-1, reader.next());
+		reader.close();
+	}
+
+	/**
+	 * Test that streams which are not move logs are refused.
+	 */
+	@Test
+	public void testHeader() throws IOException {
+		try {
+			new MoveLogReader(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 1, 0, 0, 0, 0 }));
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		new MoveLogWriter(bytes, 7).close();
+		byte[] log = bytes.toByteArray();
+		log[4] = 99;
+		try {
+			new MoveLogReader(new ByteArrayInputStream(log));
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+	}
+}
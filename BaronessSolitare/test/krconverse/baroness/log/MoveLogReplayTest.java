@@ -0,0 +1,108 @@
+/**
+ * MoveLogReplayTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.baroness.solver.BaronessSolver;
+import krconverse.baroness.solver.SolverResult;
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
+import ks.common.model.Deck;
+
+/**
+ * Test class for {@link krconverse.baroness.log.MoveLogReplay}
+ */
+public class MoveLogReplayTest extends TestCase {
+	static final int DEAL = EncodedMove.encode(EncodedMove.DEAL, 0, 0);
+	static final int KING = EncodedMove.encode(EncodedMove.KING, 4, 0);
+
+	/**
+	 * Writes a log.
+	 * @param seed The seed of the game.
+	 * @param records The records to write.
+	 * @return The bytes of the log.
+	 */
+	static byte[] log(int seed, int... records) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		MoveLogWriter writer = new MoveLogWriter(bytes, seed);
+		for (int record : records) {
+			if (record == MoveLogWriter.UNDO) {
+				writer.undo();
+			} else {
+				writer.write(record);
+			}
+		}
+		writer.close();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.log.MoveLogReplay#replay(java.io.InputStream)}.
+	 */
+	@Test
+	public void testReplay() throws IOException {
+		int pair = EncodedMove.encode(EncodedMove.PAIR, 4, 1);
+		byte[] log = log(Deck.OrderBySuit, DEAL, KING, DEAL, pair, MoveLogWriter.UNDO, pair);
+
+		BaronessState expected = BaronessState.fromSeed(Deck.OrderBySuit).apply(DEAL).apply(KING).apply(DEAL);
+		assertEquals(expected.apply(pair), MoveLogReplay.replay(new ByteArrayInputStream(log)));
+
+		// only part of the log
+		MoveLogReader reader = new MoveLogReader(new ByteArrayInputStream(log));
+		assertEquals(expected, MoveLogReplay.replay(reader, 3));
+		reader = new MoveLogReader(new ByteArrayInputStream(log));
+		assertEquals(expected, MoveLogReplay.replay(reader, 5));
+		reader = new MoveLogReader(new ByteArrayInputStream(log));
+		try {
+			MoveLogReplay.replay(reader, 7);
+			fail();
+		} catch (IOException e) {
+			// the log is only six records long
+		}
+	}
+
+	/**
+	 * Test that logs with moves against the rules are refused.
+	 */
+	@Test
+	public void testInvalid() throws IOException {
+		try {
+			MoveLogReplay.replay(new ByteArrayInputStream(log(Deck.OrderBySuit, KING)));
+			fail();
+		} catch (IOException e) {
+			// nothing has been dealt yet
+		}
+
+		try {
+			MoveLogReplay.replay(new ByteArrayInputStream(log(Deck.OrderBySuit, DEAL, MoveLogWriter.UNDO, MoveLogWriter.UNDO)));
+			fail();
+		} catch (IOException e) {
+			// there is only one move to undo
+		}
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.log.MoveLogReplay#verify(java.io.InputStream)}.
+	 */
+	@Test
+	public void testVerify() throws IOException {
+		SolverResult result = new BaronessSolver().solve(BaronessState.fromSeed(2115290114));
+		assertTrue(result.isWon());
+		int[] moves = result.getMoves();
+		assertTrue(MoveLogReplay.verify(new ByteArrayInputStream(log(2115290114, moves))));
+
+		// a game which was given up on
+		int[] start = new int[moves.length - 1];
+		System.arraycopy(moves, 0, start, 0, start.length);
+		assertFalse(MoveLogReplay.verify(new ByteArrayInputStream(log(2115290114, start))));
+	}
+}
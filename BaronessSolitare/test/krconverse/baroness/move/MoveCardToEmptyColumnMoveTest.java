@@ -14,7 +14,6 @@ import krconverse.Baroness;
 import ks.common.model.Column;
 import ks.common.model.Deck;
 import ks.common.model.Pile;
-import ks.launcher.Main;
 
 /**
  * Test class for {@link krconverse.baroness.move.MoveCardToEmptyColumnMove}
@@ -30,8 +29,7 @@ public class MoveCardToEmptyColumnMoveTest extends TestCase {
 	 */
 	@Before
 	public void setUp() throws Exception {
-		game = new Baroness();
-		Main.generateWindow(game, Deck.OrderBySuit);
+		game = Baroness.createHeadless(Deck.OrderBySuit);
 		deck = (Deck) game.getModelElement("deck");
 		
 		columns = new Column[5];
@@ -62,7 +60,6 @@ public class MoveCardToEmptyColumnMoveTest extends TestCase {
 		// and check the score and cards left counters
 		assertEquals(52, game.getScoreValue());
 		assertEquals(52, game.getNumLeft().getValue());
-		game.dispose();
 	}
 
 	/**
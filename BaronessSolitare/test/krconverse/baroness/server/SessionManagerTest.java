@@ -0,0 +1,152 @@
+/**
+ * SessionManagerTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.baroness.solver.BaronessSolver;
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
+import ks.common.model.Deck;
+
+/**
+ * Test class for {@link krconverse.baroness.server.SessionManager}.
+ */
+public class SessionManagerTest extends TestCase {
+	SessionManager manager;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() {
+		manager = new SessionManager(2);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() {
+		manager.shutdown();
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.server.SessionManager#move(long, int)}.
+	 */
+	@Test
+	public void testMove() throws Exception {
+		long id = manager.open(Deck.OrderBySuit);
+		assertEquals(1, manager.size());
+		int deal = EncodedMove.encode(EncodedMove.DEAL, 0, 0);
+		int king = EncodedMove.encode(EncodedMove.KING, 4, 0);
+
+		// the King cannot be played before it has been dealt
+		assertFalse(manager.move(id, king).get());
+		assertTrue(manager.move(id, deal).get());
+		assertTrue(manager.move(id, king).get());
+		assertEquals(1, manager.getAvailableMoves(id).get().length); // only the deal
+
+		BaronessState expected = BaronessState.fromSeed(Deck.OrderBySuit).apply(deal).apply(king);
+		assertEquals(expected, manager.getState(id).get());
+		int[] history = manager.getHistory(id).get();
+		assertEquals(2, history.length);
+		assertEquals(deal, history[0]);
+		assertEquals(king, history[1]);
+
+		// a closed session takes no more commands
+		assertTrue(manager.close(id));
+		assertFalse(manager.close(id));
+		assertEquals(0, manager.size());
+		try {
+			manager.move(id, deal);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.server.SessionManager#undo(long)}.
+	 */
+	@Test
+	public void testUndo() throws Exception {
+		long id = manager.open(Deck.OrderBySuit);
+		int deal = EncodedMove.encode(EncodedMove.DEAL, 0, 0);
+		int king = EncodedMove.encode(EncodedMove.KING, 4, 0);
+		assertFalse(manager.undo(id).get());
+
+		manager.move(id, deal);
+		manager.move(id, king);
+		manager.move(id, deal);
+		assertTrue(manager.undo(id).get());
+		assertEquals(BaronessState.fromSeed(Deck.OrderBySuit).apply(deal).apply(king), manager.getState(id).get());
+		assertEquals(2, manager.getHistory(id).get().length);
+
+		// the deal can be made again once it was taken back
+		assertTrue(manager.undo(id).get());
+		assertTrue(manager.undo(id).get());
+		assertFalse(manager.undo(id).get());
+		assertEquals(BaronessState.fromSeed(Deck.OrderBySuit), manager.getState(id).get());
+		assertTrue(manager.move(id, deal).get());
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.server.SessionManager#open(int)}.
+	 */
+	@Test
+	public void testManySessions() throws Exception {
+		// a few winnable deals, each played in many sessions at once
+		int[] seeds = { 2115290114, 1, 2, 3, 5, 6, 9, 10 };
+		List<int[]> solutions = new ArrayList<int[]>();
+		BaronessSolver solver = new BaronessSolver();
+		for (int i = 0; i < seeds.length; i++) {
+			int[] moves = solver.solve(BaronessState.fromSeed(seeds[i])).getMoves();
+			if (moves.length == 0) {
+				seeds[i] = seeds[0];
+				moves = solutions.get(0);
+			}
+			solutions.add(moves);
+		}
+
+		int sessions = 10000;
+		long[] ids = new long[sessions];
+		for (int i = 0; i < sessions; i++) {
+			ids[i] = manager.open(seeds[i % seeds.length]);
+		}
+
+		// send every move without waiting, interleaving the sessions
+		List<CompletableFuture<Boolean>> results = new ArrayList<CompletableFuture<Boolean>>();
+		for (int move = 0; ; move++) {
+			boolean sent = false;
+			for (int i = 0; i < sessions; i++) {
+				int[] solution = solutions.get(i % seeds.length);
+				if (move < solution.length) {
+					results.add(manager.move(ids[i], solution[move]));
+					sent = true;
+				}
+			}
+			if (!sent) {
+				break;
+			}
+		}
+
+		// the commands of each session ran in order
+		for (CompletableFuture<Boolean> result : results) {
+			assertTrue(result.get());
+		}
+		for (int i = 0; i < sessions; i++) {
+			assertTrue(manager.getState(ids[i]).get().hasWon());
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * SessionRegistryTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.server;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import ks.common.model.Deck;
+
+/**
+ * Test class for {@link krconverse.baroness.server.SessionRegistry}.
+ */
+public class SessionRegistryTest extends TestCase {
+	/** Runs commands on the calling thread. */
+	static final Executor DIRECT = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	/**
+	 * Test method for {@link krconverse.baroness.server.SessionRegistry#add(krconverse.baroness.server.GameSession)}.
+	 */
+	@Test
+	public void testAdd() {
+		SessionRegistry registry = new SessionRegistry(5);
+		GameSession session = new GameSession(3, Deck.OrderBySuit, DIRECT);
+		registry.add(session);
+		assertSame(session, registry.get(3));
+		assertNull(registry.get(4));
+		assertEquals(1, registry.size());
+
+		// identifiers are unique
+		try {
+			registry.add(new GameSession(3, Deck.OrderBySuit, DIRECT));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+
+		assertSame(session, registry.remove(3));
+		assertNull(registry.remove(3));
+		assertEquals(0, registry.size());
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.server.SessionRegistry#get(long)}.
+	 */
+	@Test
+	public void testConcurrentAccess() throws InterruptedException {
+		final SessionRegistry registry = new SessionRegistry();
+		final int perThread = 2500;
+		final AtomicInteger missing = new AtomicInteger();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			final int first = t * perThread;
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					for (int i = first; i < first + perThread; i++) {
+						registry.add(new GameSession(i, i, DIRECT));
+					}
+					for (int i = first; i < first + perThread; i++) {
+						if (registry.get(i) == null) {
+							missing.incrementAndGet();
+						}
+						if (i % 2 == 0 && registry.remove(i) == null) {
+							missing.incrementAndGet();
+						}
+					}
+				}
+			};
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(0, missing.get());
+		assertEquals(threads.length * perThread / 2, registry.size());
+		assertNotNull(registry.get(1));
+		assertNull(registry.get(2));
+	}
+}
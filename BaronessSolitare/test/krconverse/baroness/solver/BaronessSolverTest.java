@@ -0,0 +1,252 @@
+/**
+ * BaronessSolverTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.Baroness;
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
+import ks.common.model.Card;
+import ks.common.model.Column;
+import ks.common.model.Deck;
+import ks.common.model.Pile;
+
+/**
+ * Test class for {@link krconverse.baroness.solver.BaronessSolver}
+ */
+public class BaronessSolverTest extends TestCase {
+
+	/**
+	 * Creates a deal from a shuffled deck.
+	 * @param seed The seed to shuffle the deck with.
+	 * @return The starting state of the deal.
+	 */
+	static BaronessState shuffled(long seed) {
+		List<Byte> cards = new ArrayList<Byte>();
+		for (int i = 0; i < 52; i++) {
+			cards.add((byte) i);
+		}
+		Collections.shuffle(cards, new Random(seed));
+
+		byte[] deck = new byte[52];
+		for (int i = 0; i < 52; i++) {
+			deck[i] = cards.get(i);
+		}
+		return BaronessState.newDeal(deck);
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.BaronessSolver#solve(krconverse.baroness.state.BaronessState)}.
+	 */
+	@Test
+	public void testSolveWon() {
+		BaronessState state = shuffled(1);
+		SolverResult result = new BaronessSolver().solve(state);
+		assertTrue(result.isWon());
+		assertFalse(result.isProvenLost());
+
+		// the moves really do win the game
+		for (int move : result.getMoves()) {
+			state = state.apply(move);
+		}
+		assertTrue(state.hasWon());
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.BaronessSolver#solve(krconverse.baroness.state.BaronessState)}.
+	 */
+	@Test
+	public void testSolveLost() {
+		BaronessSolver solver = new BaronessSolver();
+		SolverResult result = solver.solve(shuffled(7));
+		assertTrue(result.isProvenLost());
+		assertEquals(0, result.getMoves().length);
+		assertEquals(result.getNodes(), result.getPositions());
+
+		// the solver can be reused and gives the same answer
+		assertEquals(result.getNodes(), solver.solve(shuffled(7)).getNodes());
+
+		// but it cannot prove anything if it is stopped early
+		result = new BaronessSolver(100).solve(shuffled(7));
+		assertEquals(SolverResult.Outcome.UNKNOWN, result.getOutcome());
+		assertEquals(100, result.getNodes());
+
+		// or if it runs out of time
+		solver = new BaronessSolver();
+		solver.setTimeLimit(1);
+		result = solver.solve(shuffled(4)); // takes millions of positions
+		assertEquals(SolverResult.Outcome.UNKNOWN, result.getOutcome());
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.BaronessSolver#solve(krconverse.Baroness)}.
+	 */
+	@Test
+	public void testSolveGame() {
+		// the deal which the generic solver wins in BaronessTest
+		Baroness game = Baroness.createHeadless(2115290114);
+
+		SolverResult result = new BaronessSolver().solve(game);
+		assertTrue(result.isWon());
+
+		// play the solution with the real moves
+		for (int move : result.getMoves()) {
+			assertTrue(game.createMove(move).doMove(game));
+		}
+		assertTrue(game.hasWon());
+
+		// and an ordered deck cannot be won at all
+		assertTrue(new BaronessSolver().solve(BaronessState.fromSeed(Deck.OrderBySuit)).isProvenLost());
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.BaronessSolver#setPruning(boolean)}.
+	 */
+	@Test
+	public void testPruning() {
+		BaronessSolver pruned = new BaronessSolver();
+		BaronessSolver full = new BaronessSolver();
+		full.setPruning(false);
+		for (long seed = 0; seed < 20; seed++) {
+			BaronessState state = shuffled(seed);
+			SolverResult expected = full.solve(state);
+			SolverResult result = pruned.solve(state);
+			assertEquals(expected.getOutcome(), result.getOutcome());
+			assertTrue(result.getNodes() <= expected.getNodes());
+
+			// the moves which were made without branching are part of the solution
+			for (int move : result.getMoves()) {
+				assertTrue(state.isValid(move));
+				state = state.apply(move);
+			}
+			assertEquals(result.isWon(), state.hasWon());
+		}
+	}
+
+	/**
+	 * Test that pruning does not lose a deal which is only won by dealing onto
+	 * a lone King instead of playing it.
+	 */
+	@Test
+	public void testPruningKeepsBase() {
+		byte[] deck = { 47, 32, 16, 29, 18, 14, 46, 35, 39, 22, 38, 7, 20, 50, 30, 19, 44, 2, 25, 37, 48, 8, 9, 28,
+				34, 49, 41, 0, 24, 11, 23, 42, 1, 17, 51, 40, 27, 26, 3, 43, 36, 45, 15, 31, 6, 21, 10, 12, 4, 13,
+				33, 5 };
+		BaronessState start = BaronessState.newDeal(deck);
+		BaronessSolver full = new BaronessSolver();
+		full.setPruning(false);
+		assertTrue(full.solve(start).isWon());
+
+		for (SearchStrategy strategy : SearchStrategy.values()) {
+			BaronessSolver solver = new BaronessSolver();
+			solver.setStrategy(strategy);
+			SolverResult result = solver.solve(start);
+			assertTrue(result.isWon());
+
+			BaronessState state = start;
+			for (int move : result.getMoves()) {
+				assertTrue(state.isValid(move));
+				state = state.apply(move);
+			}
+			assertTrue(state.hasWon());
+		}
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.BaronessSolver#setStrategy(krconverse.baroness.solver.SearchStrategy)}.
+	 */
+	@Test
+	public void testStrategies() {
+		for (long seed : new long[] { 1, 2, 8, 12 }) {
+			BaronessState start = shuffled(seed);
+			int[] lengths = new int[SearchStrategy.values().length];
+			for (SearchStrategy strategy : SearchStrategy.values()) {
+				BaronessSolver solver = new BaronessSolver();
+				solver.setStrategy(strategy);
+				SolverResult result = solver.solve(start);
+				assertTrue(result.isWon());
+
+				BaronessState state = start;
+				for (int move : result.getMoves()) {
+					assertTrue(state.isValid(move));
+					state = state.apply(move);
+				}
+				assertTrue(state.hasWon());
+				lengths[strategy.ordinal()] = result.getMoves().length;
+			}
+
+			// both exact strategies find one of the shortest wins
+			int shortest = lengths[SearchStrategy.BEST_FIRST.ordinal()];
+			assertEquals(shortest, lengths[SearchStrategy.ITERATIVE_DEEPENING.ordinal()]);
+			assertTrue(shortest <= lengths[SearchStrategy.DEPTH_FIRST.ordinal()]);
+			assertTrue(shortest <= lengths[SearchStrategy.WEIGHTED_BEST_FIRST.ordinal()]);
+			assertTrue(lengths[SearchStrategy.WEIGHTED_BEST_FIRST.ordinal()] <= 2 * shortest);
+		}
+
+		// and every strategy proves a lost deal
+		for (SearchStrategy strategy : SearchStrategy.values()) {
+			BaronessSolver solver = new BaronessSolver();
+			solver.setStrategy(strategy);
+			assertTrue(solver.solve(shuffled(7)).isProvenLost());
+		}
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.BaronessSolver#forcedMove(krconverse.baroness.state.BaronessState)}.
+	 */
+	@Test
+	public void testForcedMove() {
+		BaronessSolver solver = new BaronessSolver();
+		int deal = EncodedMove.encode(EncodedMove.DEAL, 0, 0);
+
+		// 9, 10, J, Q, K of the last suit on top, but the King may still be
+		// kept as a base for a dealt card while the deck is not empty
+		BaronessState state = BaronessState.fromSeed(Deck.OrderBySuit);
+		assertEquals(-1, solver.forcedMove(state));
+		state = state.apply(deal);
+		assertEquals(-1, solver.forcedMove(state));
+
+		// 4, 5, 6, 7, 8 on top, but every rank is still left in other suits
+		state = state.apply(EncodedMove.encode(EncodedMove.KING, 4, 0)).apply(deal);
+		assertEquals(-1, solver.forcedMove(state));
+
+		// a pair is forced when its cards are the last of their ranks
+		Baroness game = Baroness.createHeadless(Deck.OrderBySuit);
+		Deck cards = (Deck) game.getModelElement("deck");
+		Column six = (Column) game.getModelElement("col1");
+		Column seven = (Column) game.getModelElement("col3");
+		Pile foundation = (Pile) game.getModelElement("foundation");
+		Card otherSeven = null;
+		while (!cards.empty()) {
+			Card card = cards.get();
+			if (card.getSuit() != Card.CLUBS || card.getRank() != 6 && card.getRank() != 7) {
+				if (card.getRank() == 7 && otherSeven == null) {
+					otherSeven = card;
+				} else {
+					foundation.add(card);
+				}
+			} else if (card.getRank() == 6) {
+				six.add(card);
+			} else {
+				seven.add(card);
+			}
+		}
+		foundation.add(otherSeven);
+		assertEquals(EncodedMove.encode(EncodedMove.PAIR, 0, 2), solver.forcedMove(BaronessState.fromGame(game)));
+
+		// but not while another seven could be played with the six
+		foundation.get();
+		((Column) game.getModelElement("col5")).add(otherSeven);
+		assertEquals(-1, solver.forcedMove(BaronessState.fromGame(game)));
+	}
+}
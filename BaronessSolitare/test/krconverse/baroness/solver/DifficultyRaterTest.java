@@ -0,0 +1,101 @@
+/**
+ * DifficultyRaterTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
+import ks.common.model.Deck;
+
+/**
+ * Test class for {@link krconverse.baroness.solver.DifficultyRater}
+ */
+public class DifficultyRaterTest extends TestCase {
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.DifficultyRater#rate(int)}.
+	 */
+	@Test
+	public void testRate() {
+		DifficultyRater rater = new DifficultyRater(0);
+
+		// a forgiving deal reaches the limit of lines
+		DifficultyRating easy = rater.rate(8);
+		assertEquals(SolverResult.Outcome.WON, easy.getOutcome());
+		assertEquals(DifficultyRater.LINE_LIMIT, easy.getLines());
+		assertTrue(easy.isPartial());
+		assertEquals(DifficultyRating.Level.EASY, easy.getLevel());
+
+		// one which needs a lot of moves to empty columns is harder
+		DifficultyRating hard = rater.rate(10);
+		assertTrue(hard.getLines() > 0);
+		assertTrue(hard.getEmptyColumnMoves() > easy.getEmptyColumnMoves());
+		assertTrue(hard.getScore() > easy.getScore());
+		assertEquals(DifficultyRating.Level.HARD, hard.getLevel());
+
+		// the rater can be reused and gives the same answer
+		DifficultyRating again = rater.rate(8);
+		assertEquals(easy.getNodes(), again.getNodes());
+		assertEquals(easy.getEmptyColumnMoves(), again.getEmptyColumnMoves());
+	}
+
+	/**
+	 * Test that the moves to empty columns are never more than the solver's
+	 * own win needs, even when counting lines stops early.
+	 */
+	@Test
+	public void testEmptyColumnMoves() {
+		DifficultyRater rater = new DifficultyRater(0);
+		rater.setPositionLimit(2000);
+		BaronessSolver solver = new BaronessSolver();
+		for (int seed = 0; seed < 30; seed++) {
+			SolverResult result = solver.solve(BaronessState.fromSeed(seed));
+			if (!result.isWon()) {
+				continue;
+			}
+			int needed = 0;
+			for (int move : result.getMoves()) {
+				if (EncodedMove.type(move) == EncodedMove.EMPTY_COLUMN) {
+					needed++;
+				}
+			}
+			assertTrue(rater.rate(seed).getEmptyColumnMoves() <= needed);
+		}
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.DifficultyRater#rate(int, krconverse.baroness.state.BaronessState)}.
+	 */
+	@Test
+	public void testUnwinnable() {
+		DifficultyRating lost = new DifficultyRater(0).rate(Deck.OrderBySuit,
+				BaronessState.fromSeed(Deck.OrderBySuit));
+		assertEquals(DifficultyRating.Level.UNWINNABLE, lost.getLevel());
+		assertEquals(0, lost.getLines());
+		assertTrue(Double.isNaN(lost.getScore()));
+
+		// a solver which gives up cannot tell
+		assertEquals(DifficultyRating.Level.UNKNOWN, new DifficultyRater(10).rate(10).getLevel());
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.DifficultyRater#setPositionLimit(int)}.
+	 */
+	@Test
+	public void testPositionLimit() {
+		DifficultyRater rater = new DifficultyRater(0);
+		rater.setPositionLimit(50);
+		DifficultyRating rating = rater.rate(10);
+
+		// the walk stops early, but the solver's win is still rated
+		assertEquals(SolverResult.Outcome.WON, rating.getOutcome());
+		assertTrue(rating.isPartial());
+		assertTrue(rating.getLines() < DifficultyRater.LINE_LIMIT);
+		assertTrue(rating.getEmptyColumnMoves() > 0);
+	}
+}
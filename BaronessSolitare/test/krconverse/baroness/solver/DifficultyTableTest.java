@@ -0,0 +1,100 @@
+/**
+ * DifficultyTableTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for {@link krconverse.baroness.solver.DifficultyTable}
+ */
+public class DifficultyTableTest extends TestCase {
+	File file;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		file = File.createTempFile("baroness", ".ratings");
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		file.delete();
+	}
+
+	/**
+	 * Test that ratings can be written and read back.
+	 */
+	@Test
+	public void testWriteRead() throws Exception {
+		List<DifficultyRating> ratings = new ArrayList<DifficultyRating>();
+		ratings.add(new DifficultyRating(5, SolverResult.Outcome.WON, 3, 10000, true, 0)); // easy
+		ratings.add(new DifficultyRating(6, SolverResult.Outcome.LOST, 800, 0, false, 0));
+		ratings.add(new DifficultyRating(7, SolverResult.Outcome.WON, 1000, 4, false, 2)); // hard
+		ratings.add(new DifficultyRating(-8, SolverResult.Outcome.UNKNOWN, 100, 0, false, 0));
+		ratings.add(new DifficultyRating(9, SolverResult.Outcome.WON, 300, 100, true, 0)); // medium
+		ratings.add(new DifficultyRating(10, SolverResult.Outcome.WON, 5, 10000, true, 1)); // easy
+		DifficultyTable.write(file, ratings);
+
+		DifficultyTable table = new DifficultyTable(file);
+		assertEquals(6, table.size());
+		for (int i = 0; i < ratings.size(); i++) {
+			DifficultyRating expected = ratings.get(i);
+			DifficultyRating rating = table.getRating(i);
+			assertEquals(expected.getSeed(), table.getSeed(i));
+			assertEquals(expected.getLevel(), table.getLevel(i));
+			assertEquals(expected.getSeed(), rating.getSeed());
+			assertEquals(expected.getOutcome(), rating.getOutcome());
+			assertEquals(expected.getNodes(), rating.getNodes());
+			assertEquals(expected.getLines(), rating.getLines());
+			assertEquals(expected.isPartial(), rating.isPartial());
+			assertEquals(expected.getEmptyColumnMoves(), rating.getEmptyColumnMoves());
+			assertEquals((float) expected.getScore(), table.getScore(i));
+		}
+
+		// pick out the pools
+		assertTrue(Arrays.equals(new int[] { 5, 10 }, table.getSeeds(DifficultyRating.Level.EASY)));
+		assertTrue(Arrays.equals(new int[] { 9 }, table.getSeeds(DifficultyRating.Level.MEDIUM)));
+		assertTrue(Arrays.equals(new int[] { 7 }, table.getSeeds(DifficultyRating.Level.HARD)));
+		assertTrue(Arrays.equals(new int[] { 6 }, table.getSeeds(DifficultyRating.Level.UNWINNABLE)));
+		assertTrue(Arrays.equals(new int[] { -8 }, table.getSeeds(DifficultyRating.Level.UNKNOWN)));
+
+		// deals which are not known to be winnable have no score
+		assertTrue(Arrays.equals(new int[] { 5, 9, 10 }, table.getSeeds(-10, 2)));
+		table.close();
+	}
+
+	/**
+	 * Test that a file which is not a table is refused.
+	 */
+	@Test
+	public void testNotATable() throws Exception {
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13 });
+		out.close();
+		try {
+			new DifficultyTable(file);
+			fail("A file which is not a table was opened");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * LossCertificateTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.Baroness;
+import krconverse.baroness.state.BaronessState;
+import ks.common.model.Card;
+import ks.common.model.Column;
+import ks.common.model.Deck;
+import ks.common.model.Pile;
+
+/**
+ * Test class for {@link krconverse.baroness.solver.LossCertificate}
+ */
+public class LossCertificateTest extends TestCase {
+
+	/**
+	 * Sets up a position late in a game, where only some clubs are left.
+	 * @param deck The ranks of the clubs left in the deck, bottom first.
+	 * @param columns The ranks of the clubs in each column, bottom first.
+	 * @return The position.
+	 */
+	static BaronessState clubs(int[] deck, int[]... columns) {
+		Baroness game = Baroness.createHeadless(Deck.OrderBySuit);
+		Deck cards = (Deck) game.getModelElement("deck");
+		Pile foundation = (Pile) game.getModelElement("foundation");
+		while (!cards.empty()) {
+			Card card = cards.get();
+			if (card.getSuit() != Card.CLUBS) {
+				foundation.add(card);
+			}
+		}
+		boolean[] used = new boolean[14];
+		for (int rank : deck) {
+			cards.add(new Card(rank, Card.CLUBS));
+			used[rank] = true;
+		}
+		for (int i = 0; i < columns.length; i++) {
+			Column column = (Column) game.getModelElement("col" + (i + 1));
+			for (int rank : columns[i]) {
+				column.add(new Card(rank, Card.CLUBS));
+				used[rank] = true;
+			}
+		}
+		for (int rank = 1; rank < 14; rank++) {
+			if (!used[rank]) {
+				foundation.add(new Card(rank, Card.CLUBS));
+			}
+		}
+		return BaronessState.fromGame(game);
+	}
+
+	/**
+	 * @param ranks The ranks of some clubs.
+	 * @return The bits of the clubs.
+	 */
+	static long bits(int... ranks) {
+		long bits = 0;
+		for (int rank : ranks) {
+			bits |= 1L << BaronessState.encode(new Card(rank, Card.CLUBS));
+		}
+		return bits;
+	}
+
+	/**
+	 * Test that every column covering the partners of its own top card is
+	 * lost.
+	 */
+	@Test
+	public void testSelfBlocked() {
+		BaronessState state = clubs(new int[0], new int[] { 1, 12 }, new int[] { 2, 11 }, new int[] { 3, 10 },
+				new int[] { 4, 9 }, new int[] { 5, 8 });
+		LossCertificate certificate = LossCertificate.find(state);
+		assertEquals(LossCertificate.Reason.LOCKED_COLUMNS, certificate.getReason());
+		assertEquals(bits(12, 11, 10, 9, 8), certificate.getCards());
+		assertTrue(certificate.verify(state));
+
+		// not when one of the partners is still in the deck
+		state = clubs(new int[] { 8 }, new int[] { 1, 12 }, new int[] { 2, 11 }, new int[] { 3, 10 },
+				new int[] { 4, 9 }, new int[] { 5 });
+		assertNull(LossCertificate.find(state));
+		assertFalse(certificate.verify(state));
+	}
+
+	/**
+	 * Test that two columns which each cover the partners of the other are
+	 * lost.
+	 */
+	@Test
+	public void testCrossBlocked() {
+		BaronessState state = clubs(new int[0], new int[] { 6, 2 }, new int[] { 11, 7 }, new int[] { 3, 10 },
+				new int[] { 4, 9 }, new int[] { 5, 8 });
+		LossCertificate certificate = LossCertificate.find(state);
+		assertEquals(LossCertificate.Reason.LOCKED_COLUMNS, certificate.getReason());
+		assertEquals(bits(2, 7, 10, 9, 8), certificate.getCards());
+		assertTrue(certificate.verify(state));
+
+		// a certificate which leaves out a card is not a proof
+		assertFalse(new LossCertificate(LossCertificate.Reason.LOCKED_COLUMNS, bits(7, 10, 9, 8)).verify(state));
+
+		// with an empty column the cards can be moved apart
+		state = clubs(new int[0], new int[] { 6, 2 }, new int[] { 11, 7 }, new int[] { 3, 10 }, new int[] { 4, 9 });
+		assertNull(LossCertificate.find(state));
+	}
+
+	/**
+	 * Test that a position without any moves is lost.
+	 */
+	@Test
+	public void testNoMoves() {
+		BaronessState state = clubs(new int[0], new int[] { 2 }, new int[] { 3 });
+		LossCertificate certificate = LossCertificate.find(state);
+		assertEquals(LossCertificate.Reason.NO_MOVES, certificate.getReason());
+		assertTrue(certificate.verify(state));
+		assertFalse(certificate.verify(BaronessSolverTest.shuffled(1)));
+	}
+
+	/**
+	 * Test that the solver stops at positions which are lost on their face.
+	 */
+	@Test
+	public void testSolver() {
+		BaronessState state = clubs(new int[0], new int[] { 1, 12 }, new int[] { 2, 11 }, new int[] { 3, 10 },
+				new int[] { 4, 9 }, new int[] { 5, 8 });
+		BaronessSolver solver = new BaronessSolver();
+		SolverResult result = solver.solve(state);
+		assertTrue(result.isProvenLost());
+		assertEquals(0, result.getNodes());
+		assertEquals(1, solver.getStatistics().getDeadEnds());
+		assertTrue(result.getCertificate().verify(state));
+
+		solver.solve(BaronessSolverTest.shuffled(7));
+		assertTrue(solver.getStatistics().getDeadEnds() > 0);
+	}
+}
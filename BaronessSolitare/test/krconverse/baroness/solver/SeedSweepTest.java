@@ -0,0 +1,91 @@
+/**
+ * SeedSweepTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.baroness.state.BaronessState;
+
+/**
+ * Test class for {@link krconverse.baroness.solver.SeedSweep}
+ */
+public class SeedSweepTest extends TestCase {
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.SeedSweep#run(int, int, java.io.Writer)}.
+	 */
+	@Test
+	public void testRun() throws Exception {
+		SeedSweep sweep = new SeedSweep(4, 20000);
+		StringWriter out = new StringWriter();
+		sweep.run(100, 139, out);
+		sweep.shutdown();
+
+		String[] lines = out.toString().split("\n");
+		assertEquals(41, lines.length);
+		assertEquals(SeedSweep.HEADER, lines[0]);
+		assertEquals(40, sweep.getWon() + sweep.getLost() + sweep.getUnknown());
+
+		// every line matches solving the seed on its own
+		BaronessSolver solver = new BaronessSolver(20000);
+		for (int i = 0; i < 40; i++) {
+			String[] fields = lines[i + 1].split(",");
+			SolverResult result = solver.solve(BaronessState.fromSeed(100 + i));
+			assertEquals(100 + i, Integer.parseInt(fields[0]));
+			assertEquals(result.getOutcome().toString(), fields[1]);
+			assertEquals(result.getNodes(), Long.parseLong(fields[2]));
+		}
+	}
+
+	/**
+	 * Test that seeds come out in order when there are more of them than are
+	 * solved at once.
+	 */
+	@Test
+	public void testWindow() throws Exception {
+		SeedSweep sweep = new SeedSweep(4, 20000);
+		sweep.window = 3;
+		StringWriter out = new StringWriter();
+		sweep.run(100, 119, out);
+		sweep.shutdown();
+
+		String[] lines = out.toString().split("\n");
+		assertEquals(21, lines.length);
+		for (int i = 0; i < 20; i++) {
+			assertEquals(100 + i, Integer.parseInt(lines[i + 1].split(",")[0]));
+		}
+		assertEquals(20, sweep.getWon() + sweep.getLost() + sweep.getUnknown());
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.SeedSweep#setReport(java.io.Writer)}.
+	 */
+	@Test
+	public void testReport() throws Exception {
+		SeedSweep sweep = new SeedSweep(2, 20000);
+		StringWriter report = new StringWriter();
+		sweep.setReport(report);
+		sweep.run(100, 109, new StringWriter());
+		sweep.shutdown();
+
+		String[] lines = report.toString().split("\n");
+		assertEquals(11, lines.length);
+		assertEquals(SolverStatistics.REPORT_HEADER, lines[0]);
+		long nodes = 0;
+		for (int i = 0; i < 10; i++) {
+			String[] fields = lines[i + 1].split(",");
+			assertEquals(100 + i, Integer.parseInt(fields[0]));
+			nodes += Long.parseLong(fields[2]);
+		}
+
+		// the monitor saw the same searches
+		assertEquals(10, sweep.getMonitor().getSearches());
+		assertEquals(nodes, sweep.getMonitor().getNodes());
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ * SolutionCacheTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for {@link krconverse.baroness.solver.SolutionCache}
+ */
+public class SolutionCacheTest extends TestCase {
+	File file;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		file = File.createTempFile("baroness", ".cache");
+		file.delete();
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		file.delete();
+	}
+
+	/**
+	 * Test that verdicts can be stored and are still there after reopening.
+	 */
+	@Test
+	public void testPutGet() throws Exception {
+		SolutionCache cache = new SolutionCache(file);
+		assertNull(cache.get(42, 0));
+
+		assertTrue(cache.put(42, 0, new SolverResult(SolverResult.Outcome.WON, new int[45], 501, 501)));
+		assertTrue(cache.put(-7, 0, new SolverResult(SolverResult.Outcome.LOST, new int[0], 13411, 13411)));
+		assertTrue(cache.put(42, 1, new SolverResult(SolverResult.Outcome.LOST, new int[0], 9, 9)));
+
+		// unknown outcomes and repeats are not stored
+		assertFalse(cache.put(43, 0, new SolverResult(SolverResult.Outcome.UNKNOWN, new int[0], 100, 100)));
+		assertFalse(cache.put(42, 0, new SolverResult(SolverResult.Outcome.LOST, new int[0], 1, 1)));
+		assertEquals(3, cache.size());
+		cache.close();
+
+		cache = new SolutionCache(file);
+		assertEquals(3, cache.size());
+		SolutionCache.Entry entry = cache.get(42, 0);
+		assertEquals(SolverResult.Outcome.WON, entry.getOutcome());
+		assertEquals(45, entry.getLength());
+		assertEquals(501, entry.getNodes());
+		assertEquals(SolverResult.Outcome.LOST, cache.get(-7, 0).getOutcome());
+		assertEquals(9, cache.get(42, 1).getNodes());
+		assertNull(cache.get(43, 0));
+		cache.close();
+	}
+
+	/**
+	 * Test that the file grows past its first mapping.
+	 */
+	@Test
+	public void testGrow() throws Exception {
+		SolverResult result = new SolverResult(SolverResult.Outcome.LOST, new int[0], 1, 1);
+		SolutionCache cache = new SolutionCache(file);
+		int count = SolutionCache.GROWTH + 10;
+		for (int seed = 0; seed < count; seed++) {
+			assertTrue(cache.put(seed, 0, result));
+		}
+		cache.close();
+
+		cache = new SolutionCache(file);
+		assertEquals(count, cache.size());
+		assertNotNull(cache.get(count - 1, 0));
+		cache.close();
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.SolutionCache#solve(krconverse.baroness.solver.BaronessSolver, int)}.
+	 */
+	@Test
+	public void testSolve() throws Exception {
+		SolutionCache cache = new SolutionCache(file);
+		BaronessSolver solver = new BaronessSolver();
+		SolutionCache.Entry first = cache.solve(solver, 2115290114);
+		assertEquals(SolverResult.Outcome.WON, first.getOutcome());
+		assertEquals(1, cache.size());
+
+		// the second time comes from the cache
+		SolutionCache.Entry second = cache.solve(solver, 2115290114);
+		assertEquals(first.getLength(), second.getLength());
+		assertEquals(first.getNodes(), second.getNodes());
+		assertEquals(1, cache.size());
+		cache.close();
+	}
+}
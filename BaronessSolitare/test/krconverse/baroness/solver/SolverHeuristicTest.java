@@ -0,0 +1,76 @@
+/**
+ * SolverHeuristicTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.Baroness;
+import krconverse.baroness.state.BaronessState;
+import ks.common.model.Card;
+import ks.common.model.Column;
+import ks.common.model.Deck;
+import ks.common.model.Pile;
+
+/**
+ * Test class for {@link krconverse.baroness.solver.SolverHeuristic}
+ */
+public class SolverHeuristicTest extends TestCase {
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.SolverHeuristic#lowerBound(krconverse.baroness.state.BaronessState)}.
+	 */
+	@Test
+	public void testLowerBound() {
+		// four Kings, 24 pairs and eleven deals
+		BaronessState state = BaronessSolverTest.shuffled(1);
+		assertEquals(39, SolverHeuristic.lowerBound(state));
+
+		// no move takes more than one off the estimate
+		SolverResult result = new BaronessSolver().solve(state);
+		int estimate = SolverHeuristic.lowerBound(state);
+		for (int move : result.getMoves()) {
+			state = state.apply(move);
+			int next = SolverHeuristic.lowerBound(state);
+			assertTrue(next >= estimate - 1);
+			estimate = next;
+		}
+		assertEquals(0, estimate);
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.SolverHeuristic#blockedCards(krconverse.baroness.state.BaronessState, int[])}.
+	 */
+	@Test
+	public void testBlockedCards() {
+		// only a six with the last seven on top of it are left
+		Baroness game = Baroness.createHeadless(Deck.OrderBySuit);
+		Deck deck = (Deck) game.getModelElement("deck");
+		Column column = (Column) game.getModelElement("col2");
+		Pile foundation = (Pile) game.getModelElement("foundation");
+		Card seven = null;
+		while (!deck.empty()) {
+			Card card = deck.get();
+			if (card.getSuit() != Card.CLUBS || card.getRank() != 6 && card.getRank() != 7) {
+				foundation.add(card);
+			} else if (card.getRank() == 6) {
+				column.add(card);
+			} else {
+				seven = card;
+			}
+		}
+		column.add(seven);
+
+		BaronessState state = BaronessState.fromGame(game);
+		int[] counts = new int[14];
+		state.countRanks(counts);
+		assertEquals(1, SolverHeuristic.blockedCards(state, counts));
+
+		// the seven has to be moved away before it can be paired
+		assertEquals(2, SolverHeuristic.lowerBound(state));
+		assertEquals(0, SolverHeuristic.blockedCards(BaronessSolverTest.shuffled(1), new int[14]));
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * SolverMonitorTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for {@link krconverse.baroness.solver.SolverMonitor}
+ */
+public class SolverMonitorTest extends TestCase {
+
+	/**
+	 * Test that the monitor adds up every search of its solvers.
+	 */
+	@Test
+	public void testRecord() {
+		SolverMonitor monitor = new SolverMonitor();
+		BaronessSolver solver = new BaronessSolver();
+		solver.setMonitor(monitor);
+
+		long nodes = solver.solve(BaronessSolverTest.shuffled(1)).getNodes();
+		nodes += solver.solve(BaronessSolverTest.shuffled(7)).getNodes();
+		assertEquals(2, monitor.getSearches());
+		assertEquals(1, monitor.getWon());
+		assertEquals(1, monitor.getLost());
+		assertEquals(0, monitor.getUnknown());
+		assertEquals(nodes, monitor.getNodes());
+		assertEquals(nodes, monitor.getTotals().getNodes());
+		assertTrue(monitor.getDealMoves() > 0);
+
+		monitor.reset();
+		assertEquals(0, monitor.getSearches());
+		assertEquals(0, monitor.getNodes());
+	}
+
+	/**
+	 * Test that the monitor can be read over JMX.
+	 */
+	@Test
+	public void testRegister() throws Exception {
+		SolverMonitor monitor = new SolverMonitor();
+		BaronessSolver solver = new BaronessSolver();
+		solver.setMonitor(monitor);
+		long nodes = solver.solve(BaronessSolverTest.shuffled(1)).getNodes();
+
+		monitor.register("test");
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName("krconverse.baroness:type=Solver,name=" + ObjectName.quote("test"));
+		try {
+			assertEquals(nodes, server.getAttribute(name, "Nodes"));
+			assertEquals(1L, server.getAttribute(name, "Won"));
+		} finally {
+			monitor.unregister();
+		}
+		assertFalse(server.isRegistered(name));
+	}
+}
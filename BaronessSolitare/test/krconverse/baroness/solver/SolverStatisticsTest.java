@@ -0,0 +1,103 @@
+/**
+ * SolverStatisticsTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.util.Locale;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * Test class for {@link krconverse.baroness.solver.SolverStatistics}
+ */
+public class SolverStatisticsTest extends TestCase {
+
+	/**
+	 * Test that the counters of a search add up.
+	 */
+	@Test
+	public void testSearch() {
+		BaronessSolver solver = new BaronessSolver();
+		SolverResult result = solver.solve(BaronessSolverTest.shuffled(7));
+		SolverStatistics statistics = solver.getStatistics();
+		assertEquals(result.getNodes(), statistics.getNodes());
+		assertTrue(statistics.getGenerated(EncodedMove.DEAL) > 0);
+		assertTrue(statistics.getTranspositionHits() > 0);
+		assertTrue(statistics.getWallTime() > 0);
+		assertTrue(statistics.getBranchingFactor() > 1);
+
+		// every node is counted at exactly one depth
+		long[] histogram = statistics.getDepthHistogram();
+		assertEquals(statistics.getMaxDepth() + 1, histogram.length);
+		long nodes = 0;
+		for (long count : histogram) {
+			nodes += count;
+		}
+		assertEquals(statistics.getNodes(), nodes);
+		assertEquals(1, histogram[0]);
+
+		// the counters start again with each search
+		SolverStatistics copy = statistics.copy();
+		solver.solve(BaronessSolverTest.shuffled(1));
+		assertEquals(result.getNodes(), copy.getNodes());
+		assertTrue(statistics.getNodes() < copy.getNodes());
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.SolverStatistics#add(krconverse.baroness.solver.SolverStatistics)}.
+	 */
+	@Test
+	public void testAdd() {
+		SolverStatistics first = new SolverStatistics();
+		first.expanded(0);
+		first.expanded(1);
+		first.generated[EncodedMove.PAIR] = 3;
+		SolverStatistics second = new SolverStatistics();
+		second.expanded(100);
+		second.transpositionHits = 2;
+
+		first.add(second);
+		assertEquals(3, first.getNodes());
+		assertEquals(3, first.getGenerated(EncodedMove.PAIR));
+		assertEquals(2, first.getTranspositionHits());
+		assertEquals(100, first.getMaxDepth());
+		assertEquals(101, first.getDepthHistogram().length);
+		assertEquals(1, first.getDepthHistogram()[100]);
+
+		first.reset();
+		assertEquals(0, first.getNodes());
+		assertEquals(0, first.getDepthHistogram().length);
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.SolverStatistics#report(int, krconverse.baroness.solver.SolverResult.Outcome)}.
+	 */
+	@Test
+	public void testReport() {
+		SolverStatistics statistics = new SolverStatistics();
+		statistics.expanded(0);
+		statistics.generated[EncodedMove.DEAL] = 1;
+		String[] fields = statistics.report(42, SolverResult.Outcome.LOST).split(",");
+		assertEquals(SolverStatistics.REPORT_HEADER.split(",").length, fields.length);
+		assertEquals("42", fields[0]);
+		assertEquals("LOST", fields[1]);
+		assertEquals("1", fields[2]);
+		assertEquals("1", fields[6]);
+
+		// the columns stay apart where numbers are written with a decimal comma
+		Locale locale = Locale.getDefault();
+		Locale.setDefault(Locale.GERMANY);
+		try {
+			fields = statistics.report(42, SolverResult.Outcome.LOST).split(",");
+			assertEquals(SolverStatistics.REPORT_HEADER.split(",").length, fields.length);
+			assertEquals("1.000", fields[fields.length - 1]);
+		} finally {
+			Locale.setDefault(locale);
+		}
+	}
+}
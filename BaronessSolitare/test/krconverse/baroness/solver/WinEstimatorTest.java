@@ -0,0 +1,120 @@
+/**
+ * WinEstimatorTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.Baroness;
+import krconverse.baroness.state.BaronessState;
+import krconverse.baroness.state.EncodedMove;
+
+/**
+ * Test class for {@link krconverse.baroness.solver.WinEstimator}
+ */
+public class WinEstimatorTest extends TestCase {
+	WinEstimator estimator;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		estimator = new WinEstimator(2);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@After
+	public void tearDown() throws Exception {
+		estimator.shutdown();
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.WinEstimator#estimate(krconverse.baroness.state.BaronessState, long)}.
+	 */
+	@Test
+	public void testEstimate() throws Exception {
+		estimator.setRolloutLimit(1000);
+
+		// a forgiving deal is won by most random games
+		BaronessState easy = BaronessState.fromSeed(6).apply(WinEstimator.DEAL);
+		WinEstimate estimate = estimator.estimate(easy, 10000).get();
+		assertEquals(2, estimate.size());
+		for (int i = 0; i < estimate.size(); i++) {
+			assertEquals(1000, estimate.getRollouts(i));
+			assertTrue(estimate.getProbability(i) > 0.4);
+		}
+		assertEquals(2000, estimate.getTotalRollouts());
+
+		// and a lost one never is
+		estimate = estimator.estimate(BaronessState.fromSeed(1).apply(WinEstimator.DEAL), 10000).get();
+		for (int i = 0; i < estimate.size(); i++) {
+			assertEquals(0, estimate.getWins(i));
+			assertEquals(0.0, estimate.getProbability(i));
+		}
+
+		// the move which wins the game is sure to
+		BaronessState state = BaronessState.fromSeed(6);
+		int[] solution = new BaronessSolver().solve(state).getMoves();
+		for (int i = 0; i < solution.length - 1; i++) {
+			state = state.apply(solution[i]);
+		}
+		estimate = estimator.estimate(state, 10000).get();
+		assertEquals(solution[solution.length - 1], estimate.getBestMove());
+		assertEquals(1.0, estimate.getProbability(0));
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.WinEstimator#estimate(krconverse.Baroness, long)}.
+	 */
+	@Test
+	public void testBudget() throws Exception {
+		Baroness game = Baroness.createHeadless(2115290114);
+		int[] buffer = new int[EncodedMove.MAX_MOVES];
+		int count = game.availableMoves(buffer);
+
+		// without a limit on rollouts, the estimate takes its whole budget,
+		// but the caller does not wait for it
+		estimator.setRolloutLimit(Integer.MAX_VALUE);
+		CompletableFuture<WinEstimate> future = estimator.estimate(game, 50);
+		assertFalse(future.isDone());
+		WinEstimate estimate = future.get();
+		assertTrue(estimate.getMillis() >= 50);
+		assertTrue(estimate.getMillis() < 1000);
+		assertEquals(count, estimate.size());
+		for (int i = 0; i < count; i++) {
+			assertEquals(buffer[i], estimate.getMove(i));
+			assertTrue(estimate.getRollouts(i) > 0);
+		}
+
+		// the game itself was left alone
+		assertEquals(52, game.getNumLeft().getValue());
+
+		// an estimate started behind another one cuts it short, and both
+		// answer within their budget
+		WinEstimator single = new WinEstimator(1);
+		single.setRolloutLimit(Integer.MAX_VALUE);
+		CompletableFuture<WinEstimate> first = single.estimate(game, 50);
+		CompletableFuture<WinEstimate> second = single.estimate(game, 50);
+		assertTrue(first.get().getTotalRollouts() > 0);
+		assertTrue(first.get().getMillis() < 150);
+		assertTrue(second.get().getTotalRollouts() > 0);
+		assertTrue(second.get().getMillis() < 150);
+		single.shutdown();
+
+		// and even an empty budget plays a rollout after each move
+		estimate = estimator.estimate(BaronessState.fromSeed(1).apply(WinEstimator.DEAL), 0).get();
+		for (int i = 0; i < estimate.size(); i++) {
+			assertEquals(2, estimate.getRollouts(i));
+		}
+	}
+}
@@ -0,0 +1,58 @@
+/**
+ * WinnableSeedQueueTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.solver;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.baroness.state.BaronessState;
+
+/**
+ * Test class for {@link krconverse.baroness.solver.WinnableSeedQueue}
+ */
+public class WinnableSeedQueueTest extends TestCase {
+
+	/**
+	 * Test that the seeds handed out can be won.
+	 */
+	@Test
+	public void testPoll() {
+		WinnableSeedQueue queue = new WinnableSeedQueue(2, 200, 0);
+
+		// nothing is solved before the queue is started
+		assertNull(queue.poll(10));
+
+		queue.start();
+		for (int i = 0; i < 3; i++) {
+			Integer seed = queue.poll(10000);
+			assertNotNull(seed);
+			assertTrue(new BaronessSolver().solve(BaronessState.fromSeed(seed)).isWon());
+		}
+		queue.stop();
+		assertTrue(queue.size() <= 2);
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.solver.WinnableSeedQueue#next()}.
+	 */
+	@Test
+	public void testNext() throws InterruptedException {
+		WinnableSeedQueue queue = new WinnableSeedQueue(2, 200, 0);
+
+		// without spare seeds, one is solved on the spot
+		assertNull(queue.poll());
+		int seed = queue.next();
+		assertTrue(new BaronessSolver().solve(BaronessState.fromSeed(seed)).isWon());
+
+		// waiting for a spare seed leaves it to be taken without solving
+		queue.start();
+		queue.awaitSpare();
+		assertTrue(queue.size() > 0);
+		seed = queue.next();
+		queue.stop();
+		assertTrue(new BaronessSolver().solve(BaronessState.fromSeed(seed)).isWon());
+	}
+}
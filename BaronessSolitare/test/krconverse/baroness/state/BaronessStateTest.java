@@ -0,0 +1,258 @@
+/**
+ * BaronessStateTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.state;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.Baroness;
+import krconverse.baroness.move.DealCardsMove;
+import krconverse.baroness.move.PlayKingMove;
+import ks.common.model.Card;
+import ks.common.model.Column;
+import ks.common.model.Deck;
+import ks.common.model.Pile;
+
+/**
+ * Test class for {@link krconverse.baroness.state.BaronessState}
+ */
+public class BaronessStateTest extends TestCase {
+	Baroness game;
+	Deck deck;
+	Column[] columns;
+	Pile foundation;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		game = Baroness.createHeadless(Deck.OrderBySuit);
+		deck = (Deck) game.getModelElement("deck");
+
+		columns = new Column[5];
+		for (int i = 0; i < 5; i++) {
+			columns[i] = (Column) game.getModelElement("col" + (i + 1));
+		}
+
+		foundation = (Pile) game.getModelElement("foundation");
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.state.BaronessState#fromGame(krconverse.Baroness)}.
+	 */
+	@Test
+	public void testFromGame() {
+		BaronessState state = BaronessState.fromGame(game);
+		assertEquals(52, state.getDeckCount());
+		assertEquals(0, state.getFoundationCount());
+		assertEquals(52, state.getScore());
+		for (int i = 0; i < 5; i++) {
+			assertEquals(0, state.getColumnCount(i));
+			assertEquals(0, state.getTopRank(i));
+		}
+
+		// deal and play the King
+		new DealCardsMove(deck, columns).doMove(game);
+		new PlayKingMove(columns[4], foundation).doMove(game);
+		state = BaronessState.fromGame(game);
+		assertEquals(47, state.getDeckCount());
+		assertEquals(1, state.getFoundationCount());
+		assertEquals(51, state.getScore());
+		assertEquals(9, state.getTopRank(0));
+		assertEquals(12, state.getTopRank(3));
+		assertEquals(0, state.getColumnCount(4));
+		assertFalse(state.hasWon());
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.state.BaronessState#applyTo(krconverse.Baroness)}.
+	 */
+	@Test
+	public void testApplyTo() {
+		BaronessState start = BaronessState.fromGame(game);
+
+		new DealCardsMove(deck, columns).doMove(game);
+		new PlayKingMove(columns[4], foundation).doMove(game);
+		BaronessState played = BaronessState.fromGame(game);
+
+		// go back to the start
+		start.applyTo(game);
+		assertEquals(52, deck.count());
+		assertTrue(foundation.empty());
+		assertEquals(52, game.getScoreValue());
+		assertEquals(52, game.getNumLeft().getValue());
+		assertEquals(start, BaronessState.fromGame(game));
+
+		// and forward again
+		played.applyTo(game);
+		assertEquals(47, deck.count());
+		assertEquals(1, foundation.count());
+		assertEquals(13, foundation.peek().getRank());
+		assertEquals(51, game.getScoreValue());
+		assertEquals(47, game.getNumLeft().getValue());
+		assertEquals(played, BaronessState.fromGame(game));
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.state.BaronessState#apply(int)}.
+	 */
+	@Test
+	public void testApply() {
+		BaronessState state = BaronessState.fromGame(game);
+
+		// dealing matches the DealCardsMove
+		BaronessState dealt = state.apply(EncodedMove.encode(EncodedMove.DEAL, 0, 0));
+		new DealCardsMove(deck, columns).doMove(game);
+		assertEquals(BaronessState.fromGame(game), dealt);
+		assertEquals(52, state.getDeckCount()); // the original is unchanged
+
+		// and so does playing the King
+		BaronessState played = dealt.apply(EncodedMove.encode(EncodedMove.KING, 4, 0));
+		new PlayKingMove(columns[4], foundation).doMove(game);
+		assertEquals(BaronessState.fromGame(game), played);
+		assertEquals(51, played.getScore());
+
+		// deal again and play the 5 and 8, which empties the last column
+		BaronessState paired = played.apply(EncodedMove.encode(EncodedMove.DEAL, 0, 0))
+				.apply(EncodedMove.encode(EncodedMove.PAIR, 1, 4));
+		assertEquals(49, paired.getScore());
+		assertEquals(10, paired.getTopRank(1));
+		assertEquals(0, paired.getColumnCount(4));
+
+		// and move a card to the empty column
+		BaronessState moved = paired.apply(EncodedMove.encode(EncodedMove.EMPTY_COLUMN, 0, 4));
+		assertEquals(1, moved.getColumnCount(0));
+		assertEquals(1, moved.getColumnCount(4));
+		assertEquals(4, moved.getTopRank(4));
+		assertEquals(9, moved.getTopRank(0));
+		assertEquals(paired.getScore(), moved.getScore());
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.state.BaronessState#generateMoves(int[])}.
+	 */
+	@Test
+	public void testGenerateMoves() {
+		int[] buffer = new int[EncodedMove.MAX_MOVES];
+		int[] expected = new int[EncodedMove.MAX_MOVES];
+
+		// the state agrees with the game throughout a few deals
+		for (int i = 0; i < 4; i++) {
+			int count = game.availableMoves(expected);
+			assertEquals(count, BaronessState.fromGame(game).generateMoves(buffer));
+			for (int j = 0; j < count; j++) {
+				assertEquals(expected[j], buffer[j]);
+			}
+			new DealCardsMove(deck, columns).doMove(game);
+		}
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.state.BaronessState#encode(ks.common.model.Card)}.
+	 */
+	@Test
+	public void testEncode() {
+		boolean[] seen = new boolean[52];
+		for (int i = 0; i < 52; i++) {
+			Card card = deck.peek(i);
+			byte code = BaronessState.encode(card);
+			assertFalse(seen[code]);
+			seen[code] = true;
+			assertEquals(card.getRank(), BaronessState.rank(code));
+			assertEquals(card.getSuit(), BaronessState.suit(code));
+		}
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.state.BaronessState#isValid(int)}.
+	 */
+	@Test
+	public void testIsValid() {
+		int deal = EncodedMove.encode(EncodedMove.DEAL, 0, 0);
+		BaronessState state = BaronessState.fromGame(game);
+		assertTrue(state.isValid(deal));
+		assertFalse(state.isValid(EncodedMove.encode(EncodedMove.DEAL, 1, 0)));
+		assertFalse(state.isValid(EncodedMove.encode(EncodedMove.KING, 4, 0)));
+
+		// 9, 10, J, Q, K on top
+		state = state.apply(deal);
+		assertTrue(state.isValid(EncodedMove.encode(EncodedMove.KING, 4, 0)));
+		assertFalse(state.isValid(EncodedMove.encode(EncodedMove.KING, 3, 0)));
+		assertFalse(state.isValid(EncodedMove.encode(EncodedMove.PAIR, 0, 1)));
+		assertFalse(state.isValid(EncodedMove.encode(EncodedMove.EMPTY_COLUMN, 0, 4)));
+
+		// the last card of a column can not be moved to an empty one
+		state = state.apply(EncodedMove.encode(EncodedMove.KING, 4, 0));
+		assertFalse(state.isValid(EncodedMove.encode(EncodedMove.EMPTY_COLUMN, 0, 4)));
+		assertFalse(state.isValid(EncodedMove.encode(EncodedMove.EMPTY_COLUMN, 4, 0)));
+
+		// 4, 5, 6, 7, 8 on top, and pairs can be played either way round
+		state = state.apply(deal);
+		assertTrue(state.isValid(EncodedMove.encode(EncodedMove.PAIR, 4, 1)));
+		assertTrue(state.isValid(EncodedMove.encode(EncodedMove.PAIR, 2, 3)));
+		assertFalse(state.isValid(EncodedMove.encode(EncodedMove.PAIR, 2, 2)));
+		assertFalse(state.isValid(EncodedMove.encode(EncodedMove.PAIR, 0, 4)));
+
+		state = state.apply(EncodedMove.encode(EncodedMove.PAIR, 4, 1));
+		assertTrue(state.isValid(EncodedMove.encode(EncodedMove.EMPTY_COLUMN, 0, 4)));
+		assertFalse(state.isValid(EncodedMove.encode(EncodedMove.EMPTY_COLUMN, 1, 4)));
+		assertFalse(state.isValid(EncodedMove.encode(EncodedMove.EMPTY_COLUMN, 5, 4)));
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.state.BaronessState#getCanonicalHash()}.
+	 */
+	@Test
+	public void testCanonicalHash() {
+		byte[] deck = new byte[52];
+		for (int i = 0; i < 52; i++) {
+			deck[i] = (byte) i;
+		}
+		byte[][] columns = { { 10, 11 }, {}, { 12 }, { 20 }, { 30, 31 } };
+		byte[][] swapped = { { 12 }, { 10, 11 }, {}, { 20 }, { 30, 31 } };
+		byte[][] swappedRight = { { 10, 11 }, {}, { 12 }, { 30, 31 }, { 20 } };
+
+		// with an empty deck any columns can be swapped
+		BaronessState state = new BaronessState(deck, 0, columns, 45);
+		assertEquals(state.getCanonicalHash(), new BaronessState(deck, 0, swapped, 45).getCanonicalHash());
+		assertEquals(state.getCanonicalHash(), new BaronessState(deck, 0, swappedRight, 45).getCanonicalHash());
+		assertFalse(state.getHash() == new BaronessState(deck, 0, swapped, 45).getHash());
+
+		// the last deal only goes to the two columns on the right
+		state = new BaronessState(deck, 2, columns, 43);
+		assertEquals(state.getCanonicalHash(), new BaronessState(deck, 2, swapped, 43).getCanonicalHash());
+		assertFalse(state.getCanonicalHash() == new BaronessState(deck, 2, swappedRight, 43).getCanonicalHash());
+
+		// and before that every column is dealt to
+		state = new BaronessState(deck, 7, columns, 38);
+		assertEquals(state.getHash(), state.getCanonicalHash());
+		assertFalse(state.getCanonicalHash() == new BaronessState(deck, 7, swapped, 38).getCanonicalHash());
+
+		// moving a card between columns is not a swap
+		byte[][] moved = { { 10 }, { 11 }, { 12 }, { 20 }, { 30, 31 } };
+		assertFalse(new BaronessState(deck, 0, columns, 45).getCanonicalHash()
+				== new BaronessState(deck, 0, moved, 45).getCanonicalHash());
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.state.BaronessState#newDeal(byte[])}.
+	 */
+	@Test
+	public void testNewDeal() {
+		BaronessState state = BaronessState.newDeal(new byte[52]);
+		assertEquals(52, state.getDeckCount());
+		assertEquals(52, state.getScore());
+
+		try {
+			BaronessState.newDeal(new byte[10]);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
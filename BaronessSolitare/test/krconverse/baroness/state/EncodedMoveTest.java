@@ -0,0 +1,74 @@
+/**
+ * EncodedMoveTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.state;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for {@link krconverse.baroness.state.EncodedMove}
+ */
+public class EncodedMoveTest extends TestCase {
+
+	/**
+	 * Packs the top ranks of the five columns.
+	 */
+	static int ranks(int... ranks) {
+		int packed = 0;
+		for (int i = 0; i < ranks.length; i++) {
+			packed |= ranks[i] << (i << 2);
+		}
+		return packed;
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.state.EncodedMove#encode(int, int, int)}.
+	 */
+	@Test
+	public void testEncode() {
+		for (int type = 0; type < 4; type++) {
+			for (int source = 0; source < 5; source++) {
+				for (int target = 0; target < 5; target++) {
+					int move = EncodedMove.encode(type, source, target);
+					assertTrue(move < 256);
+					assertEquals(type, EncodedMove.type(move));
+					assertEquals(source, EncodedMove.source(move));
+					assertEquals(target, EncodedMove.target(move));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.state.EncodedMove#generate(int, int, int, int[])}.
+	 */
+	@Test
+	public void testGenerate() {
+		int[] buffer = new int[EncodedMove.MAX_MOVES];
+
+		// nothing but a deal at the start
+		assertEquals(1, EncodedMove.generate(0, 0, 52, buffer));
+		assertEquals(EncodedMove.DEAL, EncodedMove.type(buffer[0]));
+
+		// and nothing at all with an empty deck
+		assertEquals(0, EncodedMove.generate(ranks(1, 2, 3, 4, 5), 0, 0, buffer));
+
+		// a King and a single pair
+		assertEquals(3, EncodedMove.generate(ranks(9, 10, 4, 12, 13), 0, 47, buffer));
+		assertEquals(EncodedMove.encode(EncodedMove.KING, 4, 0), buffer[0]);
+		assertEquals(EncodedMove.encode(EncodedMove.PAIR, 0, 2), buffer[1]);
+		assertEquals(EncodedMove.encode(EncodedMove.DEAL, 0, 0), buffer[2]);
+
+		// a stacked column and two empty ones
+		assertEquals(2, EncodedMove.generate(ranks(0, 5, 0, 6, 9), 1 << 1, 0, buffer));
+		assertEquals(EncodedMove.encode(EncodedMove.EMPTY_COLUMN, 1, 0), buffer[0]);
+		assertEquals(EncodedMove.encode(EncodedMove.EMPTY_COLUMN, 1, 2), buffer[1]);
+
+		// the most moves there can be
+		assertTrue(EncodedMove.generate(ranks(1, 12, 1, 12, 1), 31, 5, buffer) <= EncodedMove.MAX_MOVES);
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * GameHistoryTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.state;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.baroness.solver.BaronessSolver;
+
+/**
+ * Test class for {@link krconverse.baroness.state.GameHistory}.
+ */
+public class GameHistoryTest extends TestCase {
+
+	/**
+	 * Test method for {@link krconverse.baroness.state.GameHistory#jumpTo(int)}.
+	 */
+	@Test
+	public void testJumpTo() {
+		BaronessState start = BaronessState.fromSeed(2115290114);
+		int[] solution = new BaronessSolver().solve(start).getMoves();
+		assertTrue(solution.length > 3 * GameHistory.CHECKPOINT_INTERVAL);
+
+		GameHistory history = new GameHistory(start);
+		BaronessState[] expected = new BaronessState[solution.length + 1];
+		expected[0] = start;
+		for (int i = 0; i < solution.length; i++) {
+			history.record(solution[i]);
+			expected[i + 1] = expected[i].apply(solution[i]);
+		}
+		assertEquals(solution.length, history.getSize());
+		assertTrue(history.getState().hasWon());
+
+		// every point can be reached from every other
+		for (int i : new int[] { 0, solution.length, 9, 8, 7, 23, 1, solution.length - 1 }) {
+			assertEquals(expected[i], history.jumpTo(i));
+			assertEquals(i, history.getPosition());
+		}
+		try {
+			history.jumpTo(solution.length + 1);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.state.GameHistory#undo()}.
+	 */
+	@Test
+	public void testUndoRedo() {
+		BaronessState start = BaronessState.fromSeed(2115290114);
+		int[] solution = new BaronessSolver().solve(start).getMoves();
+		GameHistory history = new GameHistory(start);
+		assertFalse(history.canUndo());
+		assertNull(history.undo());
+
+		for (int i = 0; i < 10; i++) {
+			history.record(solution[i]);
+		}
+		BaronessState tenth = history.getState();
+		BaronessState ninth = history.undo();
+		history.undo();
+		assertEquals(8, history.getPosition());
+		assertTrue(history.canRedo());
+
+		// redoing, or making the same move again, keeps the rest
+		assertEquals(ninth, history.redo());
+		history.undo();
+		history.record(solution[8]);
+		assertEquals(10, history.getSize());
+		assertEquals(tenth, history.redo());
+		assertNull(history.redo());
+
+		// but another move replaces them, at the first point with a choice
+		int[] buffer = new int[EncodedMove.MAX_MOVES];
+		int point = 0;
+		while (history.jumpTo(point).generateMoves(buffer) < 2) {
+			point++;
+		}
+		int other = buffer[0] == solution[point] ? buffer[1] : buffer[0];
+		BaronessState before = history.getState();
+		history.record(other);
+		assertEquals(point + 1, history.getSize());
+		assertEquals(before.apply(other), history.getState());
+		assertFalse(history.canRedo());
+	}
+}
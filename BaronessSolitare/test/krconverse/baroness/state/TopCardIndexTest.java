@@ -0,0 +1,136 @@
+/**
+ * TopCardIndexTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.state;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import krconverse.Baroness;
+import krconverse.baroness.move.DealCardsMove;
+import krconverse.baroness.move.MoveCardToEmptyColumnMove;
+import krconverse.baroness.move.PlayKingMove;
+import krconverse.baroness.move.PlayPairMove;
+import ks.common.model.Column;
+import ks.common.model.Deck;
+import ks.common.model.Pile;
+
+/**
+ * Test class for {@link krconverse.baroness.state.TopCardIndex}
+ */
+public class TopCardIndexTest extends TestCase {
+	Baroness game;
+	Deck deck;
+	Column[] columns;
+	Pile foundation;
+	TopCardIndex index;
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Before
+	public void setUp() throws Exception {
+		game = Baroness.createHeadless(Deck.OrderBySuit);
+		deck = (Deck) game.getModelElement("deck");
+
+		columns = new Column[5];
+		for (int i = 0; i < 5; i++) {
+			columns[i] = (Column) game.getModelElement("col" + (i + 1));
+		}
+
+		foundation = (Pile) game.getModelElement("foundation");
+		index = game.getTopCardIndex();
+	}
+
+	/**
+	 * Checks that the index agrees with the columns.
+	 */
+	void assertIndexed() {
+		int stacked = 0;
+		for (int i = 0; i < 5; i++) {
+			int rank = columns[i].empty() ? 0 : columns[i].peek().getRank();
+			assertEquals(rank, index.getRank(i));
+			assertTrue((index.getColumns(rank) & 1 << i) != 0);
+			if (columns[i].count() > 1) {
+				stacked |= 1 << i;
+			}
+		}
+		assertEquals(stacked, index.getStacked());
+
+		// and that it finds the same moves as a state
+		int[] expected = new int[EncodedMove.MAX_MOVES];
+		int[] buffer = new int[EncodedMove.MAX_MOVES];
+		int count = BaronessState.fromGame(game).generateMoves(expected);
+		assertEquals(count, index.generate(deck.count(), buffer));
+		for (int i = 0; i < count; i++) {
+			assertEquals(expected[i], buffer[i]);
+		}
+	}
+
+	/**
+	 * Test that the moves keep the index up to date.
+	 */
+	@Test
+	public void testMoves() {
+		assertEquals(31, index.getColumns(0));
+		assertIndexed();
+
+		DealCardsMove deal = new DealCardsMove(deck, columns);
+		deal.doMove(game);
+		assertEquals(1 << 4, index.getColumns(13));
+		assertEquals(0, index.getColumns(0));
+		assertIndexed();
+
+		PlayKingMove king = new PlayKingMove(columns[4], foundation);
+		king.doMove(game);
+		assertEquals(0, index.getColumns(13));
+		assertEquals(1 << 4, index.getColumns(0));
+		assertIndexed();
+
+		DealCardsMove deal2 = new DealCardsMove(deck, columns);
+		deal2.doMove(game);
+		assertIndexed();
+
+		// pair the 5 and the 8, then move the 4 into the empty column
+		PlayPairMove pair = new PlayPairMove(columns[1], columns[4], foundation);
+		assertTrue(pair.doMove(game));
+		assertIndexed();
+		MoveCardToEmptyColumnMove move = new MoveCardToEmptyColumnMove(columns[0], columns[4]);
+		assertTrue(move.doMove(game));
+		assertEquals(4, index.getRank(4));
+		assertEquals(9, index.getRank(0));
+		assertIndexed();
+
+		// undoing puts everything back
+		move.undo(game);
+		assertIndexed();
+		pair.undo(game);
+		assertIndexed();
+		deal2.undo(game);
+		king.undo(game);
+		assertEquals(1 << 4, index.getColumns(13));
+		assertIndexed();
+		deal.undo(game);
+		assertEquals(31, index.getColumns(0));
+		assertIndexed();
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.state.TopCardIndex#refresh()}.
+	 */
+	@Test
+	public void testRefresh() {
+		// change the columns behind the index's back
+		columns[2].add(deck.get());
+		assertEquals(0, index.getRank(2));
+
+		index.refresh();
+		assertEquals(13, index.getRank(2));
+		assertIndexed();
+
+		deck.add(columns[2].get());
+	}
+}
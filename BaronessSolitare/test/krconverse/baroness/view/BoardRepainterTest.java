@@ -0,0 +1,117 @@
+/**
+ * BoardRepainterTest.java
+ *
+ * @author Kodey Converse (krconverse@wpi.edu)
+ */
+package krconverse.baroness.view;
+
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import ks.common.model.Column;
+import ks.common.view.ColumnView;
+import ks.common.view.Widget;
+
+/**
+ * Test class for {@link krconverse.baroness.view.BoardRepainter}.
+ */
+public class BoardRepainterTest extends TestCase {
+
+	/**
+	 * A widget which counts how often it is redrawn.
+	 */
+	static class CountingView extends ColumnView {
+		int redraws;
+
+		/**
+		 * Creates a new widget.
+		 */
+		CountingView() {
+			super(new Column("column"));
+		}
+
+		/* (non-Javadoc)
+		 * @see ks.common.view.Widget#redraw()
+		 */
+		@Override
+		public void redraw() {
+			redraws++;
+		}
+	}
+
+	/**
+	 * @param views Where to put the widgets of the board.
+	 * @return A repainter for the widgets.
+	 */
+	static BoardRepainter create(CountingView[] views) {
+		for (int i = 0; i < views.length; i++) {
+			views[i] = new CountingView();
+		}
+		Widget[] columns = new Widget[5];
+		System.arraycopy(views, 0, columns, 0, 5);
+		return new BoardRepainter(new JPanel(), columns, views[5], views[6], views[7], views[8]);
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.view.BoardRepainter#flush()}.
+	 */
+	@Test
+	public void testFlush() {
+		CountingView[] views = new CountingView[9];
+		BoardRepainter repainter = create(views);
+
+		// marks are collected until the frame is drawn
+		repainter.columnChanged(1);
+		repainter.columnChanged(1);
+		repainter.markDirty(BoardRepainter.SCORE | BoardRepainter.FOUNDATION);
+		assertEquals(0, views[1].redraws);
+		assertEquals(BoardRepainter.COLUMN << 1 | BoardRepainter.SCORE | BoardRepainter.FOUNDATION,
+				repainter.getDirty());
+
+		// then each dirty widget is redrawn once
+		repainter.flush();
+		assertEquals(0, repainter.getDirty());
+		assertEquals(3, repainter.getRedraws());
+		for (int i = 0; i < views.length; i++) {
+			assertEquals(i == 1 || i == 6 || i == 7 ? 1 : 0, views[i].redraws);
+		}
+	}
+
+	/**
+	 * Test method for {@link krconverse.baroness.view.BoardRepainter#markDirty(int)}.
+	 */
+	@Test
+	public void testFrame() throws Exception {
+		final CountingView[] views = new CountingView[9];
+		final BoardRepainter[] repainter = new BoardRepainter[1];
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				repainter[0] = create(views);
+
+				// what a deal marks
+				for (int i = 0; i < 5; i++) {
+					repainter[0].columnChanged(i);
+				}
+				repainter[0].markDirty(BoardRepainter.DECK | BoardRepainter.CARDS_LEFT);
+			}
+		});
+
+		// the timer draws the frame on its own
+		for (int i = 0; i < 100 && repainter[0].getRedraws() == 0; i++) {
+			Thread.sleep(BoardRepainter.FRAME_MILLIS);
+		}
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				// every changed widget once, but not the score or foundation
+				assertEquals(7, repainter[0].getRedraws());
+				assertEquals(0, views[6].redraws);
+				assertEquals(0, views[7].redraws);
+			}
+		});
+	}
+}